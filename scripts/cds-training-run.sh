@@ -0,0 +1,43 @@
+#!/usr/bin/env bash
+#
+# Produces Class Data Sharing archives for the packaged application.
+#
+# The jar is extracted into target/extracted (CDS needs an unpacked class path),
+# then started with -Dspring.context.exit=onRefresh so that every class loaded
+# while the context refreshes is dumped into an archive. AOT mode loads different
+# classes, so it is trained separately: application.jsa is for plain JVM starts,
+# application-aot.jsa for starts with -Dspring.aot.enabled=true.
+#
+# Usage: ./mvnw -Pfast-startup package && scripts/cds-training-run.sh
+# Start: java -XX:SharedArchiveFile=target/extracted/application-aot.jsa \
+#             -Dspring.aot.enabled=true -jar target/extracted/simple-rest-shpp-0.0.1.jar
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+JAR=target/simple-rest-shpp-0.0.1.jar
+EXTRACTED=target/extracted
+PROFILES=${SPRING_PROFILES_ACTIVE:-prod}
+
+if [[ ! -f "$JAR" ]]; then
+    echo "Missing $JAR, run ./mvnw -Pfast-startup package first" >&2
+    exit 1
+fi
+
+rm -rf "$EXTRACTED"
+java -Djarmode=tools -jar "$JAR" extract --destination "$EXTRACTED"
+
+train() {
+    local archive=$1
+    shift
+    java -XX:ArchiveClassesAtExit="$EXTRACTED/$archive" \
+         -Dspring.context.exit=onRefresh \
+         -Dspring.profiles.active="$PROFILES" \
+         "$@" \
+         -jar "$EXTRACTED/$(basename "$JAR")"
+    echo "CDS archive written to $EXTRACTED/$archive"
+}
+
+train application.jsa
+train application-aot.jsa -Dspring.aot.enabled=true
@@ -0,0 +1,84 @@
+#!/usr/bin/env bash
+#
+# Measures time-to-capacity: the wall time from launching the JVM to the first
+# successful GET /api/v1/people/{id}. As soon as the server accepts a POST a person
+# is created, and the clock stops when that person can be read back.
+#
+# Expects the artifacts of: ./mvnw -Pfast-startup package && scripts/cds-training-run.sh
+#
+# Usage: scripts/startup-benchmark.sh [runs]
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+PORT=${PORT:-18080}
+BASE_URL="http://localhost:$PORT/api/v1/people"
+JAR=target/extracted/simple-rest-shpp-0.0.1.jar
+CDS_ARCHIVE=target/extracted/application.jsa
+AOT_CDS_ARCHIVE=target/extracted/application-aot.jsa
+LOG_DIR=target/startup-benchmark
+PERSON='{"firstName":"Олександр","lastName":"Давидюк","birthday":"1995-06-05","ipn":"2248000331"}'
+
+mkdir -p "$LOG_DIR"
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Prints the milliseconds until the first successful GET by id for one JVM launch, fails
+# when the application exits before that.
+measure_once() {
+    local name=$1
+    shift
+    local start id="" pid
+    start=$(now_ms)
+    java "$@" -jar "$JAR" --server.port="$PORT" > "$LOG_DIR/$name.log" 2>&1 &
+    pid=$!
+
+    while true; do
+        if [[ -z "$id" ]]; then
+            id=$(curl -s -X POST -H 'Content-Type: application/json' -d "$PERSON" "$BASE_URL" \
+                    | sed -n 's/.*"id":\([0-9]*\).*/\1/p' || true)
+        fi
+        if [[ -n "$id" ]] && curl -sf -o /dev/null "$BASE_URL/$id"; then
+            break
+        fi
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "Application exited during $name, see $LOG_DIR/$name.log" >&2
+            return 1
+        fi
+        sleep 0.02
+    done
+
+    echo $(( $(now_ms) - start ))
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+}
+
+benchmark() {
+    local name=$1
+    shift
+    local results=() result
+    for ((run = 1; run <= RUNS; run++)); do
+        # runs in a subshell, so a failed launch has to be checked here to stop the script
+        if ! result=$(measure_once "$name" "$@"); then
+            exit 1
+        fi
+        results+=("$result")
+    done
+    printf '%s\n' "${results[@]}" | sort -n | awk -v name="$name" '
+        { values[NR] = $1; sum += $1 }
+        END { printf "%-22s min %6d ms   median %6d ms   avg %8.1f ms\n",
+                     name, values[1], values[int((NR + 1) / 2)], sum / NR }'
+}
+
+benchmark "jvm" -Dspring.profiles.active=prod
+benchmark "jvm+lazy" -Dspring.profiles.active=prod,lazy
+benchmark "aot" -Dspring.profiles.active=prod -Dspring.aot.enabled=true
+benchmark "cds" -Dspring.profiles.active=prod -XX:SharedArchiveFile="$CDS_ARCHIVE"
+benchmark "aot+cds" -Dspring.profiles.active=prod -Dspring.aot.enabled=true \
+          -XX:SharedArchiveFile="$AOT_CDS_ARCHIVE"
+benchmark "aot+cds+lazy" -Dspring.profiles.active=prod,lazy -Dspring.aot.enabled=true \
+          -XX:SharedArchiveFile="$AOT_CDS_ARCHIVE"
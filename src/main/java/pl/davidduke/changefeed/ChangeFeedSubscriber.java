@@ -0,0 +1,125 @@
+package pl.davidduke.changefeed;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One connected client. Events are queued without blocking the publisher and written to the
+ * stream by a sender thread; a full queue means the client cannot keep up and it is dropped.
+ * <p>
+ * The emitter is only ever completed by the thread that owns sending, because completing it
+ * waits for a write in progress and must not block the publisher or the stall watchdog.
+ */
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+class ChangeFeedSubscriber {
+    static final long IDLE = 0;
+
+    SseEmitter emitter;
+    BlockingQueue<SseEmitter.SseEventBuilder> queue;
+    Executor sender;
+    AtomicBoolean sending = new AtomicBoolean();
+    AtomicBoolean closed = new AtomicBoolean();
+    @NonFinal
+    volatile long sendStartedNanos = IDLE;
+
+    ChangeFeedSubscriber(SseEmitter emitter, int bufferSize, Executor sender) {
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+        this.sender = sender;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * @return {@code true} when writing the current event has been blocked for longer than the timeout
+     */
+    boolean isStalled(long nowNanos, long timeoutNanos) {
+        long started = sendStartedNanos;
+        return started != IDLE && nowNanos - started > timeoutNanos;
+    }
+
+    /**
+     * @return {@code false} when the client is closed or its buffer overflowed
+     */
+    boolean offer(SseEmitter.SseEventBuilder event) {
+        if (closed.get()) {
+            return false;
+        }
+        if (!queue.offer(event)) {
+            log.warn("Disconnecting change feed client that fell {} events behind", queue.size());
+            close();
+            return false;
+        }
+        scheduleSend();
+        return true;
+    }
+
+    void close() {
+        if (closed.compareAndSet(false, true)) {
+            queue.clear();
+            // a sender in progress completes the emitter once its write returns
+            if (sending.compareAndSet(false, true)) {
+                complete();
+            }
+        }
+    }
+
+    private void scheduleSend() {
+        if (sending.compareAndSet(false, true)) {
+            sender.execute(this::sendQueued);
+        }
+    }
+
+    private void sendQueued() {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!closed.get() && (event = queue.poll()) != null) {
+                sendStartedNanos = Math.max(1, System.nanoTime());
+                emitter.send(event);
+                sendStartedNanos = IDLE;
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Change feed client went away", e);
+            closed.set(true);
+            queue.clear();
+        } finally {
+            sendStartedNanos = IDLE;
+        }
+        if (closed.get()) {
+            complete();
+            return;
+        }
+        sending.set(false);
+        if (closed.get()) {
+            if (sending.compareAndSet(false, true)) {
+                complete();
+            }
+        } else if (!queue.isEmpty()) {
+            scheduleSend();
+        }
+    }
+
+    private void complete() {
+        try {
+            emitter.complete();
+        } catch (RuntimeException e) {
+            log.debug("Change feed client could not be completed", e);
+        }
+    }
+}
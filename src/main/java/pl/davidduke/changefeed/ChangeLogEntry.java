@@ -0,0 +1,6 @@
+package pl.davidduke.changefeed;
+
+import pl.davidduke.event.PersonChangedEvent;
+
+record ChangeLogEntry(long sequence, PersonChangedEvent event) {
+}
@@ -0,0 +1,145 @@
+package pl.davidduke.changefeed;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import pl.davidduke.config.ChangeFeedProperties;
+import pl.davidduke.event.PeopleReloadedEvent;
+import pl.davidduke.event.PersonChangedEvent;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans committed person changes out to Server-Sent Events clients. Every change gets a
+ * sequence number that is used as the event id, so a reconnecting client can resume from
+ * its Last-Event-ID as long as the change is still in the log; otherwise it receives a
+ * {@code resync} event and has to reload. Bulk loads that publish no change per person
+ * send the {@code resync} event to every connected client.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PersonChangeFeed implements DisposableBean {
+    static final String RESYNC_EVENT = "resync";
+
+    ChangeFeedProperties properties;
+    PersonChangeLog changeLog;
+    List<ChangeFeedSubscriber> subscribers = new CopyOnWriteArrayList<>();
+    ExecutorService sender;
+
+    public PersonChangeFeed(ChangeFeedProperties properties) {
+        this.properties = properties;
+        this.changeLog = new PersonChangeLog(properties.getLogSize());
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("change-feed-");
+        threadFactory.setDaemon(true);
+        this.sender = new ThreadPoolExecutor(properties.getSenderThreads(), Integer.MAX_VALUE,
+                60, TimeUnit.SECONDS, new SynchronousQueue<>(), threadFactory);
+    }
+
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = newEmitter(properties.getStreamTimeout().toMillis());
+        synchronized (changeLog) {
+            Optional<List<ChangeLogEntry>> missed = lastEventId == null
+                    ? Optional.of(List.of())
+                    : changeLog.after(lastEventId);
+            int backlog = missed.map(List::size).orElse(1);
+            ChangeFeedSubscriber subscriber =
+                    new ChangeFeedSubscriber(emitter, properties.getClientBufferSize() + backlog, sender);
+            emitter.onCompletion(() -> subscribers.remove(subscriber));
+            emitter.onTimeout(subscriber::close);
+            emitter.onError(e -> subscriber.close());
+
+            if (missed.isPresent()) {
+                missed.get().forEach(entry -> subscriber.offer(toSseEvent(entry)));
+            } else {
+                subscriber.offer(resyncEvent(changeLog.lastSequence()));
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangedEvent event) {
+        synchronized (changeLog) {
+            ChangeLogEntry entry = changeLog.append(event);
+            for (ChangeFeedSubscriber subscriber : subscribers) {
+                if (!subscriber.offer(toSseEvent(entry))) {
+                    subscribers.remove(subscriber);
+                }
+            }
+        }
+    }
+
+    @EventListener
+    public void onPeopleReloaded(PeopleReloadedEvent event) {
+        synchronized (changeLog) {
+            long sequence = changeLog.reset();
+            for (ChangeFeedSubscriber subscriber : subscribers) {
+                if (!subscriber.offer(resyncEvent(sequence))) {
+                    subscribers.remove(subscriber);
+                }
+            }
+        }
+    }
+
+    /**
+     * Disconnects clients whose current write has been blocked for longer than the send timeout,
+     * for example because they stopped reading from the socket.
+     */
+    @Scheduled(fixedDelayString = "${app.change-feed.stall-check-interval:PT1S}")
+    public void disconnectStalledSubscribers() {
+        long now = System.nanoTime();
+        long timeout = properties.getSendTimeout().toNanos();
+        for (ChangeFeedSubscriber subscriber : subscribers) {
+            if (subscriber.isStalled(now, timeout)) {
+                log.warn("Disconnecting change feed client blocked for more than {}", properties.getSendTimeout());
+                subscriber.close();
+                subscribers.remove(subscriber);
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void destroy() {
+        subscribers.forEach(ChangeFeedSubscriber::close);
+        sender.shutdownNow();
+    }
+
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private static SseEmitter.SseEventBuilder resyncEvent(long sequence) {
+        return SseEmitter.event()
+                .id(Long.toString(sequence))
+                .name(RESYNC_EVENT)
+                .data(sequence);
+    }
+
+    private static SseEmitter.SseEventBuilder toSseEvent(ChangeLogEntry entry) {
+        return SseEmitter.event()
+                .id(Long.toString(entry.sequence()))
+                .name(entry.event().getType().name().toLowerCase(Locale.ROOT))
+                .data(entry.event(), MediaType.APPLICATION_JSON);
+    }
+}
@@ -0,0 +1,63 @@
+package pl.davidduke.changefeed;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import pl.davidduke.event.PersonChangedEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Ring buffer of the most recent changes, numbered from 1. Not thread-safe, guarded by
+ * {@link PersonChangeFeed}.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class PersonChangeLog {
+    final ChangeLogEntry[] entries;
+    long lastSequence;
+    long resetSequence;
+
+    PersonChangeLog(int capacity) {
+        entries = new ChangeLogEntry[capacity];
+    }
+
+    ChangeLogEntry append(PersonChangedEvent event) {
+        ChangeLogEntry entry = new ChangeLogEntry(++lastSequence, event);
+        entries[slot(entry.sequence())] = entry;
+        return entry;
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Takes the next sequence number for a change the log cannot describe entry by entry, so
+     * clients resuming from before it are told to reload instead of receiving the entries.
+     */
+    long reset() {
+        resetSequence = ++lastSequence;
+        return resetSequence;
+    }
+
+    /**
+     * Returns the entries after {@code sequence}, or an empty optional when they are no longer
+     * (or never were) in the log, or a reset happened after {@code sequence}.
+     */
+    Optional<List<ChangeLogEntry>> after(long sequence) {
+        long oldestRetained = Math.max(1, lastSequence - entries.length + 1);
+        if (sequence > lastSequence || sequence < oldestRetained - 1 || sequence < resetSequence) {
+            return Optional.empty();
+        }
+        List<ChangeLogEntry> missed = new ArrayList<>((int) (lastSequence - sequence));
+        for (long next = sequence + 1; next <= lastSequence; next++) {
+            missed.add(entries[slot(next)]);
+        }
+        return Optional.of(missed);
+    }
+
+    private int slot(long sequence) {
+        return (int) ((sequence - 1) % entries.length);
+    }
+}
@@ -0,0 +1,35 @@
+package pl.davidduke.config;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties("app.change-feed")
+public class ChangeFeedProperties {
+    /**
+     * Events kept for clients resuming with Last-Event-ID.
+     */
+    int logSize = 10_000;
+
+    /**
+     * Events queued per client; a client falling further behind is disconnected.
+     */
+    int clientBufferSize = 256;
+
+    /**
+     * Threads kept for writing events to clients. More are started while writes to slow clients
+     * are blocked, so a stalled client never holds up the others.
+     */
+    int senderThreads = 4;
+
+    /**
+     * How long writing a single event may block before the client is disconnected.
+     */
+    Duration sendTimeout = Duration.ofSeconds(10);
+    Duration streamTimeout = Duration.ofMinutes(30);
+}
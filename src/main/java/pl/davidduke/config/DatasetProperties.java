@@ -0,0 +1,41 @@
+package pl.davidduke.config;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties("app.dataset")
+public class DatasetProperties {
+    /**
+     * Number of synthetic people loaded at startup. Nothing is loaded when zero.
+     */
+    long rows;
+
+    /**
+     * Exposes the endpoint loading synthetic people on demand.
+     */
+    boolean endpointEnabled;
+
+    /**
+     * Seed of the random names and birthdays of generated people.
+     */
+    long seed = 42;
+
+    /**
+     * Rows generated and committed by one worker in a single transaction.
+     */
+    int chunkSize = 50_000;
+
+    /**
+     * Rows sent to the database in one JDBC batch.
+     */
+    int batchSize = 1_000;
+
+    /**
+     * Workers generating and inserting chunks in parallel.
+     */
+    int threads = Runtime.getRuntime().availableProcessors();
+}
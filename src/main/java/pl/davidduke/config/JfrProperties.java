@@ -0,0 +1,27 @@
+package pl.davidduke.config;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties("app.jfr")
+public class JfrProperties {
+    /**
+     * Exposes the endpoints starting, dumping and stopping an on-demand recording.
+     */
+    boolean endpointEnabled;
+    String settings = "classpath:jfr/person-pipeline.jfc";
+    Path dumpDirectory = Path.of(System.getProperty("java.io.tmpdir"));
+    Duration maxAge = Duration.ofMinutes(10);
+
+    /**
+     * How many dump files are kept in the dump directory; older ones are deleted on each dump.
+     */
+    int maxDumps = 10;
+}
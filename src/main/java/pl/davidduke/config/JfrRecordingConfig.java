@@ -0,0 +1,19 @@
+package pl.davidduke.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import pl.davidduke.jfr.OnDemandRecording;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.jfr.endpoint-enabled", havingValue = "true")
+@EnableConfigurationProperties(JfrProperties.class)
+public class JfrRecordingConfig {
+
+    @Bean
+    public OnDemandRecording onDemandRecording(JfrProperties properties, ResourceLoader resourceLoader) {
+        return new OnDemandRecording(properties, resourceLoader);
+    }
+}
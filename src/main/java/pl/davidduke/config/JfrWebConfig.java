@@ -0,0 +1,24 @@
+package pl.davidduke.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import pl.davidduke.jfr.JfrMappingJackson2HttpMessageConverter;
+import pl.davidduke.jfr.PipelineEventInterceptor;
+
+@Configuration(proxyBeanMethods = false)
+public class JfrWebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new PipelineEventInterceptor()).addPathPatterns("/api/v1/people/**", "/api/v1/people");
+    }
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new JfrMappingJackson2HttpMessageConverter(objectMapper);
+    }
+}
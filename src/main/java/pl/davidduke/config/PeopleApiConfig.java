@@ -0,0 +1,9 @@
+package pl.davidduke.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(PeopleApiProperties.class)
+public class PeopleApiConfig {
+}
@@ -0,0 +1,31 @@
+package pl.davidduke.config;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties("app.people")
+public class PeopleApiProperties {
+    /**
+     * Maximum number of ids resolved by a single multi-get request.
+     */
+    int lookupMaxIds = 100;
+
+    /**
+     * Maximum number of people returned by a name search.
+     */
+    int searchMaxResults = 100;
+
+    /**
+     * Share of the query's trigrams a name has to contain to be returned by a name search.
+     */
+    double searchMinCoverage = 0.5;
+
+    /**
+     * Maximum number of people changed by a single bulk update.
+     */
+    int bulkUpdateMaxItems = 1_000;
+}
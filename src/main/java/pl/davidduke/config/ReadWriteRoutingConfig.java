@@ -0,0 +1,100 @@
+package pl.davidduke.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import pl.davidduke.datasource.DataSourceRole;
+import pl.davidduke.datasource.ReadWriteRoutingDataSource;
+import pl.davidduke.datasource.ReadYourWritesTracker;
+import pl.davidduke.datasource.ReplicaHealthMonitor;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured {@link DataSource} with one that sends read-only transactions
+ * to a replica pool and everything else to the primary pool.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReadWriteRoutingProperties.class)
+public class ReadWriteRoutingConfig {
+
+    @Bean
+    public HikariDataSource primaryDataSource(ReadWriteRoutingProperties properties) {
+        return createPool("primary", properties.getPrimary());
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(ReadWriteRoutingProperties properties) {
+        return createPool("replica", properties.getReplica());
+    }
+
+    @Bean
+    public ReplicaHealthMonitor replicaHealthMonitor(
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            ReadWriteRoutingProperties properties
+    ) {
+        return new ReplicaHealthMonitor(replicaDataSource, properties);
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReadWriteRoutingProperties properties) {
+        return new ReadYourWritesTracker(properties);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            ReplicaHealthMonitor replicaHealthMonitor,
+            ReadYourWritesTracker readYourWritesTracker
+    ) {
+        ReadWriteRoutingDataSource routingDataSource =
+                new ReadWriteRoutingDataSource(replicaHealthMonitor, readYourWritesTracker);
+        routingDataSource.setTargetDataSources(Map.of(
+                DataSourceRole.PRIMARY, primaryDataSource,
+                DataSourceRole.REPLICA, replicaDataSource));
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+        // the routing key depends on the transaction's read-only flag, which is only known
+        // after the transaction manager has begun, so the physical connection has to be lazy
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> replicaInitializer(
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            ReplicaHealthMonitor replicaHealthMonitor,
+            ReadWriteRoutingProperties properties
+    ) {
+        return event -> {
+            if (properties.getReplicaInitScript() != null) {
+                new ResourceDatabasePopulator(properties.getReplicaInitScript()).execute(replicaDataSource);
+            }
+            replicaHealthMonitor.checkReplica();
+        };
+    }
+
+    private static HikariDataSource createPool(String name, ReadWriteRoutingProperties.Pool pool) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(pool.getUrl())
+                .username(pool.getUsername())
+                .password(pool.getPassword())
+                .build();
+        dataSource.setPoolName(name);
+        dataSource.setMaximumPoolSize(pool.getMaximumPoolSize());
+        return dataSource;
+    }
+}
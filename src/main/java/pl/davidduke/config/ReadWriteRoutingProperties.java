@@ -0,0 +1,46 @@
+package pl.davidduke.config;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+
+import java.time.Duration;
+
+@Data
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties("app.datasource.routing")
+public class ReadWriteRoutingProperties {
+    boolean enabled;
+    Pool primary = new Pool();
+    Pool replica = new Pool();
+
+    /**
+     * Query run against the replica that returns its replication lag in seconds.
+     * A failing query or an empty result marks the replica as unusable.
+     */
+    String lagQuery = "SELECT 0";
+    Duration maxReplicaLag = Duration.ofSeconds(5);
+
+    /**
+     * Optional script executed on the replica once the application is ready.
+     */
+    Resource replicaInitScript;
+
+    /**
+     * How long read-only transactions of a client keep going to the primary after that client wrote.
+     */
+    Duration stickinessWindow = Duration.ofSeconds(5);
+    String clientIdHeader = "X-Client-Id";
+    int maxTrackedClients = 10_000;
+
+    @Data
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Pool {
+        String url;
+        String username;
+        String password;
+        int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,40 @@
+package pl.davidduke.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import pl.davidduke.sharding.ShardedPersonStore;
+import pl.davidduke.sqlmetrics.SqlMetricsDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.person-store", havingValue = "sharded")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    public ShardedPersonStore shardedPersonStore(ShardingProperties properties) {
+        if (properties.getUrls().isEmpty()) {
+            throw new IllegalStateException("app.sharding.urls must list at least one shard");
+        }
+        List<DataSource> shards = new ArrayList<>();
+        for (int shard = 0; shard < properties.getUrls().size(); shard++) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(properties.getUrls().get(shard))
+                    .username(properties.getUsername())
+                    .password(properties.getPassword())
+                    .build();
+            dataSource.setPoolName("shard-" + shard);
+            dataSource.setMaximumPoolSize(properties.getMaximumPoolSizePerShard());
+            shards.add(new SqlMetricsDataSource(dataSource));
+        }
+        return new ShardedPersonStore(shards, properties.getScatterThreads());
+    }
+}
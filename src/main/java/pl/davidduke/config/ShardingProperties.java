@@ -0,0 +1,24 @@
+package pl.davidduke.config;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties("app.sharding")
+public class ShardingProperties {
+    /**
+     * JDBC URLs of the shards. The position in the list is the shard number, so the order
+     * must never change once data has been written.
+     */
+    List<String> urls = new ArrayList<>();
+    String username;
+    String password;
+    int maximumPoolSizePerShard = 10;
+    int scatterThreads = Runtime.getRuntime().availableProcessors();
+}
@@ -0,0 +1,43 @@
+package pl.davidduke.config;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties("app.snapshot")
+public class SnapshotProperties {
+    /**
+     * Restores the people of the active store from the snapshot at startup and keeps the snapshot
+     * up to date.
+     */
+    boolean enabled;
+    Path file = Path.of("data", "people.snapshot");
+
+    /**
+     * How often the snapshot is rewritten in the background when people changed since the last one.
+     * It is also written on shutdown.
+     */
+    Duration interval = Duration.ofMinutes(5);
+
+    /**
+     * Rows restored by one worker in a single transaction.
+     */
+    int chunkSize = 50_000;
+
+    /**
+     * Rows sent to the database in one JDBC batch while restoring the person table, and people
+     * read per page from stores other than JPA while writing the snapshot.
+     */
+    int batchSize = 1_000;
+
+    /**
+     * Workers restoring chunks in parallel.
+     */
+    int threads = Runtime.getRuntime().availableProcessors();
+}
@@ -0,0 +1,42 @@
+package pl.davidduke.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import pl.davidduke.sqlmetrics.SqlMetricsDataSource;
+import pl.davidduke.sqlmetrics.SqlMetricsFilter;
+
+import javax.sql.DataSource;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(SqlMetricsProperties.class)
+public class SqlMetricsConfig {
+
+    /**
+     * Wraps only the application's {@code dataSource}, both Hibernate and {@code JdbcTemplate} go
+     * through it. With read/write routing it is the routing proxy, so wrapping the primary and
+     * replica pools as well would count every statement twice.
+     */
+    @Bean
+    static BeanPostProcessor sqlMetricsDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && "dataSource".equals(beanName)
+                        ? new SqlMetricsDataSource(dataSource)
+                        : bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlMetricsFilter> sqlMetricsFilter(SqlMetricsProperties properties) {
+        FilterRegistrationBean<SqlMetricsFilter> registration =
+                new FilterRegistrationBean<>(new SqlMetricsFilter(properties.getSlowStatementThreshold()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,18 @@
+package pl.davidduke.config;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties("app.sql-metrics")
+public class SqlMetricsProperties {
+    /**
+     * Statements executing at least this long are logged.
+     */
+    Duration slowStatementThreshold = Duration.ofMillis(100);
+}
@@ -0,0 +1,40 @@
+package pl.davidduke.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import pl.davidduke.dataset.PersonDatasetLoader;
+import pl.davidduke.dto.DatasetLoadReportDto;
+
+@RestController
+@RequestMapping("/api/v1/admin/dataset")
+@ConditionalOnExpression("${app.dataset.endpoint-enabled:false} and '${app.person-store:jpa}' == 'jpa'")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Slf4j
+@RequiredArgsConstructor
+public class DatasetController {
+    final PersonDatasetLoader loader;
+
+    @Operation(summary = "Load synthetic people",
+            description = "Generates the given number of people with valid IPNs, inserts them and reports " +
+                    "the load throughput. The name search index is rebuilt and the snapshot is rewritten afterwards; " +
+                    "change feed clients receive a resync event, as the loaded people are not sent one by one.")
+    @ApiResponse(responseCode = "201", description = "People were loaded")
+    @PostMapping
+    public ResponseEntity<DatasetLoadReportDto> loadDataset(@RequestParam long rows) {
+        log.info("Received request to load {} synthetic people", rows);
+        DatasetLoadReportDto report = loader.load(rows);
+        log.info("Loaded {} synthetic people. Status: {}", report.getRows(), HttpStatus.CREATED);
+        return ResponseEntity.status(HttpStatus.CREATED).body(report);
+    }
+}
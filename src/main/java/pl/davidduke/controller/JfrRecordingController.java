@@ -0,0 +1,68 @@
+package pl.davidduke.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import pl.davidduke.jfr.OnDemandRecording;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+@RestController
+@RequestMapping("/api/v1/diagnostics/jfr")
+@ConditionalOnProperty(name = "app.jfr.endpoint-enabled", havingValue = "true")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Slf4j
+@RequiredArgsConstructor
+public class JfrRecordingController {
+    final OnDemandRecording recording;
+
+    @Operation(summary = "Start a flight recording",
+            description = "Starts recording the person pipeline events with the bundled settings profile.")
+    @ApiResponse(responseCode = "201", description = "Recording was started")
+    @ApiResponse(responseCode = "409", description = "A recording is already running")
+    @PostMapping("/start")
+    public ResponseEntity<Void> startRecording() throws IOException, ParseException {
+        return ResponseEntity.status(recording.start() ? HttpStatus.CREATED : HttpStatus.CONFLICT).build();
+    }
+
+    @Operation(summary = "Dump the running flight recording",
+            description = "Writes the events recorded so far to the dump directory and returns the file. " +
+                    "The recording keeps running.")
+    @ApiResponse(responseCode = "200", description = "Returns the .jfr file")
+    @ApiResponse(responseCode = "409", description = "No recording is running")
+    @PostMapping("/dump")
+    public ResponseEntity<Resource> dumpRecording() throws IOException {
+        if (!recording.isRunning()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        Path file = recording.dump();
+        log.info("Returned flight recording {}. Status: {}", file, HttpStatus.OK);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"")
+                .body(new FileSystemResource(file));
+    }
+
+    @Operation(summary = "Stop the flight recording")
+    @ApiResponse(responseCode = "204", description = "Recording was stopped")
+    @ApiResponse(responseCode = "409", description = "No recording is running")
+    @PostMapping("/stop")
+    public ResponseEntity<Void> stopRecording() {
+        return ResponseEntity.status(recording.stop() ? HttpStatus.NO_CONTENT : HttpStatus.CONFLICT).build();
+    }
+}
@@ -14,12 +14,20 @@ import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import pl.davidduke.changefeed.PersonChangeFeed;
+import pl.davidduke.dto.BulkPersonUpdateDto;
+import pl.davidduke.dto.BulkUpdateResultDto;
+import pl.davidduke.dto.PersonLookupResultDto;
 import pl.davidduke.dto.RequestPersonDto;
 import pl.davidduke.dto.PersonDto;
 import pl.davidduke.service.PersonService;
 
+import java.util.List;
+
 
 @RestController
 @RequestMapping("/api/v1/people")
@@ -28,17 +36,23 @@ import pl.davidduke.service.PersonService;
 @RequiredArgsConstructor
 public class PersonController {
     final PersonService personService;
+    final PersonChangeFeed personChangeFeed;
 
     @Operation(summary = "Get all people from database",
             description = "Retrieve all people with pagination and sorting. " +
-                    "Use 'page' and 'size' for pagination, 'sortBy' to specify the sorting field, " +
-                    "and 'sortDirection' to specify the sort order.")
+                    "Use 'page' and 'size' for pagination, at most 100 people per page, and 'sort' to " +
+                    "order by one of id, firstName, lastName or birthday, optionally followed by id in the " +
+                    "same direction. People with equal values are ordered by id.")
     @ApiResponse(responseCode = "200",
             description = "Returns a page of people",
             content = {@Content(mediaType = "application/json",
                     schema = @Schema(type = "object", implementation = PersonDto.class,
                             description = "A page containing a list of PersonDto objects"))}
     )
+    @ApiResponse(responseCode = "400",
+            description = "The requested sort is not supported",
+            content = @Content(mediaType = "application/json")
+    )
     @GetMapping
     public ResponseEntity<Page<PersonDto>> returnAllPeople(
             @ParameterObject Pageable pageable
@@ -50,6 +64,87 @@ public class PersonController {
         return ResponseEntity.ok(responsePage);
     }
 
+    @Operation(summary = "Get many people by their IDs",
+            description = "Fetches all requested people in a single query. Results keep the order of the " +
+                    "requested IDs, and IDs that do not exist are reported with 'found' set to false.")
+    @ApiResponse(responseCode = "200",
+            description = "Returns one result per requested ID",
+            content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = PersonLookupResultDto.class))}
+    )
+    @ApiResponse(responseCode = "400",
+            description = "More IDs were requested than allowed at once",
+            content = @Content(mediaType = "application/json")
+    )
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<PersonLookupResultDto>> returnPeopleByIds(
+            @Parameter(description = "Comma separated IDs of the people to retrieve", example = "1,2,3")
+            @RequestParam List<Integer> ids
+    ) {
+        log.info("Received request to retrieve {} people by ID", ids.size());
+        List<PersonLookupResultDto> results = personService.findPeopleByIds(ids);
+        log.info("Returned {} people by ID. Status: {}", results.size(), HttpStatus.OK);
+
+        return ResponseEntity.ok(results);
+    }
+
+    @Operation(summary = "Get many people by the IDs in the request body",
+            description = "Same as the 'ids' query, for ID lists too long for a URL.")
+    @ApiResponse(responseCode = "200",
+            description = "Returns one result per requested ID",
+            content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = PersonLookupResultDto.class))}
+    )
+    @ApiResponse(responseCode = "400",
+            description = "More IDs were requested than allowed at once",
+            content = @Content(mediaType = "application/json")
+    )
+    @PostMapping("/lookup")
+    public ResponseEntity<List<PersonLookupResultDto>> lookupPeople(
+            @RequestBody List<Integer> ids
+    ) {
+        return returnPeopleByIds(ids);
+    }
+
+    @Operation(summary = "Search people by name",
+            description = "Finds people whose first or last name contains fragments of the query, tolerating " +
+                    "small typos. Results are ranked, best match first.")
+    @ApiResponse(responseCode = "200",
+            description = "Returns the matching people",
+            content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = PersonDto.class))}
+    )
+    @GetMapping("/search")
+    public ResponseEntity<List<PersonDto>> searchPeople(
+            @Parameter(description = "Fragments of the first and/or last name", example = "Давид")
+            @RequestParam("q") String query,
+            @Parameter(description = "Maximum number of people to return", example = "20")
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        log.info("Received request to search people by name '{}'", query);
+        List<PersonDto> foundPeople = personService.searchPeople(query, limit);
+        log.info("Returned {} people matching '{}'. Status: {}", foundPeople.size(), query, HttpStatus.OK);
+
+        return ResponseEntity.ok(foundPeople);
+    }
+
+    @Operation(summary = "Stream changes of people",
+            description = "Server-Sent Events stream of created, updated and deleted people, sent after commit. " +
+                    "Reconnect with the 'Last-Event-ID' header to resume; when the requested position is no " +
+                    "longer retained a 'resync' event is sent and the client should reload.")
+    @ApiResponse(responseCode = "200",
+            description = "Stream of change events",
+            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)
+    )
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @Parameter(description = "ID of the last event received before reconnecting")
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId
+    ) {
+        log.info("Received request to stream changes of people from event {}", lastEventId);
+        return personChangeFeed.subscribe(lastEventId);
+    }
+
     @Operation(summary = "Get a person by ID", description = "Returns a specific person by their ID")
     @ApiResponse(responseCode = "200",
             description = "Person exists in the database and was returned " +
@@ -125,6 +220,33 @@ public class PersonController {
         return ResponseEntity.ok(updatedPerson);
     }
 
+    @Operation(summary = "Update many people at once",
+            description = "Applies a list of partial updates in one transaction. Fields missing from " +
+                    "'changes' keep their current value. Every item gets its own result: UPDATED, NOT_FOUND, " +
+                    "INVALID with the validation errors or a missing id, or IPN_CONFLICT when another person " +
+                    "holds the IPN. When writing the accepted updates fails, the request fails as a whole: " +
+                    "the JPA and in-memory stores then keep none of the updates, while the sharded store is " +
+                    "atomic per shard only and keeps the updates of shards that already committed, without " +
+                    "publishing change events for them.")
+    @ApiResponse(responseCode = "200",
+            description = "Returns one result per update, in the order of the request",
+            content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = BulkUpdateResultDto.class))}
+    )
+    @ApiResponse(responseCode = "400",
+            description = "More updates were sent than allowed at once",
+            content = @Content(mediaType = "application/json")
+    )
+    @PatchMapping
+    public ResponseEntity<List<BulkUpdateResultDto>> updatePeople(
+            @RequestBody List<BulkPersonUpdateDto> updates
+    ) {
+        log.info("Received request to update {} people", updates.size());
+        List<BulkUpdateResultDto> results = personService.updatePeople(updates);
+        log.info("Processed {} updates of people. Status: {}", results.size(), HttpStatus.OK);
+        return ResponseEntity.ok(results);
+    }
+
     @Operation(summary = "Removed an existing person from the database",
             description = "Removed a specified person from the database.")
     @ApiResponse(responseCode = "204",
@@ -0,0 +1,126 @@
+package pl.davidduke.dataset;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.davidduke.config.DatasetProperties;
+import pl.davidduke.dto.DatasetLoadReportDto;
+import pl.davidduke.entity.Person;
+import pl.davidduke.event.PeopleReloadedEvent;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Fills the person table with synthetic people. Rows are generated and inserted in chunks by
+ * a pool of workers, every chunk is written with batched JDBC inserts in its own transaction.
+ * The IPNs already in the table are reserved in the generator first, so loading into a
+ * populated table never repeats one of them.
+ * Rows bypass the {@link pl.davidduke.repository.PersonStore}, so instead of a change event per
+ * person a single {@link PeopleReloadedEvent} is published once all chunks are committed.
+ */
+@Slf4j
+@Component
+@Order(1)
+@ConditionalOnProperty(name = "app.person-store", havingValue = "jpa", matchIfMissing = true)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PersonDatasetLoader implements ApplicationRunner {
+    static final String INSERT_SQL = "INSERT INTO person (first_name, last_name, birthday, ipn) VALUES (?, ?, ?, ?)";
+
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate transactionTemplate;
+    DatasetProperties properties;
+    ApplicationEventPublisher eventPublisher;
+    SyntheticPersonGenerator generator = new SyntheticPersonGenerator(LocalDate.now());
+    SplittableRandom random;
+
+    public PersonDatasetLoader(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            DatasetProperties properties,
+            ApplicationEventPublisher eventPublisher
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.random = new SplittableRandom(properties.getSeed());
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.getRows() <= 0) {
+            return;
+        }
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM person", Long.class);
+        if (existing != null && existing > 0) {
+            log.info("Person table already holds {} people, skipped loading synthetic people at startup", existing);
+            return;
+        }
+        load(properties.getRows());
+    }
+
+    /**
+     * Generates and inserts the given number of people, returning once all of them are committed.
+     */
+    public synchronized DatasetLoadReportDto load(long rows) {
+        log.info("Loading {} synthetic people with {} workers", rows, properties.getThreads());
+        long start = System.nanoTime();
+        jdbcTemplate.query("SELECT ipn FROM person", (RowCallbackHandler) resultSet ->
+                generator.reserve(resultSet.getString(1)));
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("dataset-loader-");
+        threadFactory.setDaemon(true);
+        ExecutorService workers = Executors.newFixedThreadPool(properties.getThreads(), threadFactory);
+        try {
+            List<CompletableFuture<Void>> chunks = new ArrayList<>();
+            for (long offset = 0; offset < rows; offset += properties.getChunkSize()) {
+                int size = (int) Math.min(properties.getChunkSize(), rows - offset);
+                SplittableRandom chunkRandom = random.split();
+                chunks.add(CompletableFuture.runAsync(() -> insertChunk(size, chunkRandom), workers));
+            }
+            CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            workers.shutdownNow();
+        }
+        eventPublisher.publishEvent(new PeopleReloadedEvent(rows));
+
+        long durationMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        DatasetLoadReportDto report = DatasetLoadReportDto.builder()
+                .rows(rows)
+                .durationMillis(durationMillis)
+                .rowsPerSecond(rows * 1_000 / durationMillis)
+                .build();
+        log.info("Loaded {} synthetic people in {} ms ({} rows/s)",
+                report.getRows(), report.getDurationMillis(), report.getRowsPerSecond());
+        return report;
+    }
+
+    private void insertChunk(int size, SplittableRandom chunkRandom) {
+        List<Person> people = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            people.add(generator.next(chunkRandom));
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, people, properties.getBatchSize(), (statement, person) -> {
+                    statement.setString(1, person.getFirstName());
+                    statement.setString(2, person.getLastName());
+                    statement.setObject(3, person.getBirthday());
+                    statement.setString(4, person.getIpn());
+                }));
+    }
+}
@@ -0,0 +1,170 @@
+package pl.davidduke.dataset;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import pl.davidduke.entity.Person;
+import pl.davidduke.validation.IPNImpl;
+
+import java.nio.CharBuffer;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.random.RandomGenerator;
+
+/**
+ * Generates people with realistic names and birthdays and IPNs that pass {@link IPNImpl}.
+ * <p>
+ * An IPN starts with the birthday as five digits counting days since 1899-12-31, followed by
+ * a four-digit serial whose last digit is odd for men and even for women, and ends with the
+ * control digit. Serials are handed out from a shared counter per birthday and sex, so the
+ * generator can be used from many threads at once and never repeats an IPN it generated.
+ * IPNs of people that were not generated by this instance are only avoided once they are
+ * passed to {@link #reserve(String)}.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class SyntheticPersonGenerator {
+    static final LocalDate IPN_EPOCH = LocalDate.of(1899, 12, 31);
+    static final int SERIALS_PER_SEX = 5_000;
+    static final int MIN_AGE = 18;
+    static final int MAX_AGE = 95;
+    static final double MEAN_AGE = 42;
+    static final double AGE_DEVIATION = 16;
+    static final double DAYS_PER_YEAR = 365.2425;
+
+    /**
+     * Names are drawn with a skewed distribution, so the first names of each list are the most common.
+     */
+    static final String[] MALE_FIRST_NAMES = {
+            "Олександр", "Сергій", "Андрій", "Володимир", "Дмитро", "Олексій", "Микола", "Іван",
+            "Юрій", "Віктор", "Василь", "Михайло", "Ігор", "Віталій", "Петро", "Максим",
+            "Богдан", "Роман", "Тарас", "Денис", "Євген", "Анатолій", "Павло", "Артем",
+            "Степан", "Вадим", "Руслан", "Григорій", "Остап", "Назар", "Данило", "Ярослав"
+    };
+    static final String[] FEMALE_FIRST_NAMES = {
+            "Олена", "Тетяна", "Наталія", "Ірина", "Світлана", "Оксана", "Юлія", "Людмила",
+            "Марія", "Анна", "Валентина", "Галина", "Катерина", "Ольга", "Вікторія", "Надія",
+            "Лариса", "Інна", "Алла", "Ганна", "Леся", "Софія", "Дарина", "Христина",
+            "Зоряна", "Соломія", "Віра", "Любов", "Марта", "Анастасія", "Аліна", "Яна"
+    };
+    static final String[] LAST_NAMES = {
+            "Мельник", "Шевченко", "Коваленко", "Бондаренко", "Бойко", "Ткаченко", "Кравченко",
+            "Ковальчук", "Коваль", "Олійник", "Шевчук", "Поліщук", "Ткачук", "Савченко",
+            "Бондар", "Марченко", "Руденко", "Мороз", "Лисенко", "Петренко", "Клименко",
+            "Павленко", "Савчук", "Кравчук", "Кузьменко", "Пономаренко", "Харченко", "Василенко",
+            "Карпенко", "Ткач", "Левченко", "Юрченко", "Іваненко", "Гончаренко", "Сидоренко",
+            "Зінченко", "Панченко", "Гнатюк", "Кушнір", "Семенюк", "Діденко", "Федоренко",
+            "Романюк", "Приходько", "Гриценко", "Костенко", "Назаренко", "Мартинюк", "Гуменюк",
+            "Литвиненко", "Бабенко", "Мазур", "Пилипенко", "Даниленко", "Яковенко", "Голуб"
+    };
+    static final double NAME_SKEW = 2.2;
+
+    LocalDate referenceDate;
+    LocalDate oldestBirthday;
+    LocalDate youngestBirthday;
+    AtomicIntegerArray serialCounters;
+
+    /**
+     * @param referenceDate the day ages are counted from, every generated person is an adult on it
+     */
+    public SyntheticPersonGenerator(LocalDate referenceDate) {
+        this.referenceDate = referenceDate;
+        this.youngestBirthday = referenceDate.minusYears(MIN_AGE);
+        this.oldestBirthday = referenceDate.minusYears(MAX_AGE + 1).plusDays(1);
+        if (!oldestBirthday.isAfter(IPN_EPOCH) || !youngestBirthday.isBefore(IPN_EPOCH.plusDays(100_000))) {
+            throw new IllegalArgumentException("Birthdays around " + referenceDate + " do not fit into five IPN digits");
+        }
+        int days = (int) ChronoUnit.DAYS.between(oldestBirthday, youngestBirthday) + 1;
+        this.serialCounters = new AtomicIntegerArray(days * 2);
+    }
+
+    public Person next(RandomGenerator random) {
+        boolean male = random.nextBoolean();
+        return person(birthday(random), male, random);
+    }
+
+    /**
+     * The birthday is taken from the IPN, which belongs to an older day when all serials of
+     * {@code birthday} are already taken.
+     */
+    Person person(LocalDate birthday, boolean male, RandomGenerator random) {
+        String ipn = ipn(birthday, male);
+        return Person.builder()
+                .firstName(pick(male ? MALE_FIRST_NAMES : FEMALE_FIRST_NAMES, random))
+                .lastName(pick(LAST_NAMES, random))
+                .birthday(birthdayOf(ipn))
+                .ipn(ipn)
+                .build();
+    }
+
+    /**
+     * Ages follow a normal distribution cut to the adult range, which roughly matches the age
+     * pyramid of a working population.
+     */
+    LocalDate birthday(RandomGenerator random) {
+        double age;
+        do {
+            age = random.nextGaussian(MEAN_AGE, AGE_DEVIATION);
+        } while (age < MIN_AGE || age >= MAX_AGE + 1);
+        LocalDate birthday = referenceDate.minusDays((long) (age * DAYS_PER_YEAR));
+        if (birthday.isAfter(youngestBirthday)) {
+            return youngestBirthday;
+        }
+        return birthday.isBefore(oldestBirthday) ? oldestBirthday : birthday;
+    }
+
+    /**
+     * Hands out the next free serial of the birthday and sex. When all serials of a day are
+     * taken the person is moved to the next older day that still has a free one.
+     */
+    String ipn(LocalDate birthday, boolean male) {
+        char[] digits = new char[10];
+        LocalDate day = birthday;
+        while (!day.isBefore(oldestBirthday)) {
+            int slot = (int) ChronoUnit.DAYS.between(oldestBirthday, day) * 2 + (male ? 1 : 0);
+            writeDigits(digits, 0, 5, ChronoUnit.DAYS.between(IPN_EPOCH, day));
+            for (int next = serialCounters.getAndIncrement(slot); next < SERIALS_PER_SEX;
+                 next = serialCounters.getAndIncrement(slot)) {
+                writeDigits(digits, 5, 4, next * 2L + (male ? 1 : 0));
+                int controlNumber = IPNImpl.controlNumber(CharBuffer.wrap(digits, 0, 9));
+                if (controlNumber >= 0) {
+                    digits[9] = (char) ('0' + controlNumber);
+                    return new String(digits);
+                }
+            }
+            day = day.minusDays(1);
+        }
+        throw new IllegalStateException("All IPNs of people born before " + birthday + " are taken");
+    }
+
+    /**
+     * Marks an IPN as taken, so only serials after it are handed out for its birthday and sex.
+     * IPNs that are malformed or outside the generated birthdays are ignored.
+     */
+    public void reserve(String ipn) {
+        if (ipn == null || ipn.length() != 10 || !ipn.chars().allMatch(Character::isDigit)) {
+            return;
+        }
+        LocalDate day = birthdayOf(ipn);
+        if (day.isBefore(oldestBirthday) || day.isAfter(youngestBirthday)) {
+            return;
+        }
+        int serial = Integer.parseInt(ipn, 5, 9, 10);
+        int slot = (int) ChronoUnit.DAYS.between(oldestBirthday, day) * 2 + serial % 2;
+        serialCounters.accumulateAndGet(slot, serial / 2 + 1, Math::max);
+    }
+
+    private static LocalDate birthdayOf(String ipn) {
+        return IPN_EPOCH.plusDays(Integer.parseInt(ipn, 0, 5, 10));
+    }
+
+    private static void writeDigits(char[] digits, int offset, int length, long value) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            digits[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static String pick(String[] names, RandomGenerator random) {
+        return names[(int) (names.length * Math.pow(random.nextDouble(), NAME_SKEW))];
+    }
+}
@@ -0,0 +1,6 @@
+package pl.davidduke.datasource;
+
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
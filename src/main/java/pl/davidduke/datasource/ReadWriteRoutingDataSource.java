@@ -0,0 +1,32 @@
+package pl.davidduke.datasource;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes read-only transactions to the replica while it is healthy and the calling client
+ * has not written recently. Writes and non-transactional access always go to the primary.
+ */
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    ReplicaHealthMonitor replicaHealthMonitor;
+    ReadYourWritesTracker readYourWritesTracker;
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return DataSourceRole.PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return DataSourceRole.PRIMARY;
+        }
+        if (replicaHealthMonitor.isReplicaUsable() && !readYourWritesTracker.isWithinStickinessWindow()) {
+            return DataSourceRole.REPLICA;
+        }
+        return DataSourceRole.PRIMARY;
+    }
+}
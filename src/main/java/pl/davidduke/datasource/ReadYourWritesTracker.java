@@ -0,0 +1,95 @@
+package pl.davidduke.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import pl.davidduke.config.ReadWriteRoutingProperties;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers when each client last committed a write, so that its following reads are served
+ * by the primary until the replica had a chance to catch up. Clients are identified by the
+ * configured header, falling back to the remote address.
+ * <p>
+ * Writes are seen through the transaction manager: as a {@link TransactionExecutionListener}
+ * bean the tracker is registered on the auto-configured transaction manager and records every
+ * committed read-write transaction.
+ */
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ReadYourWritesTracker implements TransactionExecutionListener {
+
+    ReadWriteRoutingProperties properties;
+    Map<String, Long> lastWriteNanosByClient = new ConcurrentHashMap<>();
+
+    public boolean isWithinStickinessWindow() {
+        String clientId = currentClientId();
+        if (clientId == null) {
+            return false;
+        }
+        Long lastWriteNanos = lastWriteNanosByClient.get(clientId);
+        return lastWriteNanos != null && !isExpired(lastWriteNanos, System.nanoTime());
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure != null || transaction.isReadOnly()) {
+            return;
+        }
+        String clientId = currentClientId();
+        if (clientId != null) {
+            recordWrite(clientId);
+        }
+    }
+
+    void recordWrite(String clientId) {
+        long now = System.nanoTime();
+        if (lastWriteNanosByClient.replace(clientId, now) != null) {
+            return;
+        }
+        if (lastWriteNanosByClient.size() >= properties.getMaxTrackedClients()) {
+            lastWriteNanosByClient.values().removeIf(lastWriteNanos -> isExpired(lastWriteNanos, now));
+        }
+        if (lastWriteNanosByClient.size() >= properties.getMaxTrackedClients()) {
+            evictOldestClient();
+        }
+        lastWriteNanosByClient.put(clientId, now);
+    }
+
+    int trackedClients() {
+        return lastWriteNanosByClient.size();
+    }
+
+    // a full scan, but only when every tracked client wrote within the stickiness window
+    private void evictOldestClient() {
+        Map.Entry<String, Long> oldest = null;
+        for (Map.Entry<String, Long> entry : lastWriteNanosByClient.entrySet()) {
+            if (oldest == null || entry.getValue() - oldest.getValue() < 0) {
+                oldest = entry;
+            }
+        }
+        if (oldest != null) {
+            lastWriteNanosByClient.remove(oldest.getKey(), oldest.getValue());
+        }
+    }
+
+    private boolean isExpired(long lastWriteNanos, long now) {
+        return now - lastWriteNanos > properties.getStickinessWindow().toNanos();
+    }
+
+    private String currentClientId() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        String clientId = request.getHeader(properties.getClientIdHeader());
+        return clientId != null ? clientId : request.getRemoteAddr();
+    }
+}
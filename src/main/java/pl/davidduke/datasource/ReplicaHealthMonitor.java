@@ -0,0 +1,53 @@
+package pl.davidduke.datasource;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import pl.davidduke.config.ReadWriteRoutingProperties;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Periodically measures replica lag. Until the first successful check, and whenever the lag
+ * exceeds the configured maximum, read-only traffic falls back to the primary.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ReplicaHealthMonitor {
+    final DataSource replicaDataSource;
+    final ReadWriteRoutingProperties properties;
+    volatile boolean replicaUsable;
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.routing.lag-check-interval:PT5S}")
+    public void checkReplica() {
+        boolean usable;
+        try (Connection connection = replicaDataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(properties.getLagQuery())) {
+            usable = resultSet.next() && isLagAcceptable(Duration.ofMillis((long) (resultSet.getDouble(1) * 1000)));
+        } catch (SQLException e) {
+            log.debug("Replica lag check failed", e);
+            usable = false;
+        }
+        if (usable != replicaUsable) {
+            log.warn("Replica is now {} for read-only transactions", usable ? "used" : "bypassed");
+        }
+        replicaUsable = usable;
+    }
+
+    private boolean isLagAcceptable(Duration lag) {
+        return lag.compareTo(properties.getMaxReplicaLag()) <= 0;
+    }
+}
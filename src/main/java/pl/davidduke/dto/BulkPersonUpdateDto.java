@@ -0,0 +1,16 @@
+package pl.davidduke.dto;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.jackson.Jacksonized;
+
+@Data
+@Builder
+@Jacksonized
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BulkPersonUpdateDto {
+    Integer id;
+    PersonChangesDto changes;
+}
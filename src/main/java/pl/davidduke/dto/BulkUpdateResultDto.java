@@ -0,0 +1,18 @@
+package pl.davidduke.dto;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BulkUpdateResultDto {
+    Integer id;
+    BulkUpdateStatus status;
+    PersonDto person;
+    List<SubApiError> errors;
+}
@@ -0,0 +1,8 @@
+package pl.davidduke.dto;
+
+public enum BulkUpdateStatus {
+    UPDATED,
+    NOT_FOUND,
+    INVALID,
+    IPN_CONFLICT
+}
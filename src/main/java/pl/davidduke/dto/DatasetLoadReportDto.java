@@ -0,0 +1,15 @@
+package pl.davidduke.dto;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class DatasetLoadReportDto {
+    long rows;
+    long durationMillis;
+    long rowsPerSecond;
+}
@@ -0,0 +1,24 @@
+package pl.davidduke.dto;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.jackson.Jacksonized;
+
+import java.time.LocalDate;
+
+/**
+ * Fields to change on a person; fields left out keep their current value. The merged person is
+ * validated like a {@link RequestPersonDto}.
+ */
+@Data
+@Builder
+@Jacksonized
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class PersonChangesDto {
+    String firstName;
+    String lastName;
+    LocalDate birthday;
+    String ipn;
+}
@@ -14,7 +14,11 @@ import java.time.LocalDate;
 @ToString
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Entity
-@Table
+@Table(indexes = {
+        @Index(name = "idx_person_first_name_id", columnList = "first_name, id"),
+        @Index(name = "idx_person_last_name_id", columnList = "last_name, id"),
+        @Index(name = "idx_person_birthday_id", columnList = "birthday, id")
+})
 public class Person {
     @Id
     @Column
@@ -0,0 +1,13 @@
+package pl.davidduke.event;
+
+import lombok.Value;
+
+/**
+ * Published after {@code rows} people were written in bulk without going through
+ * {@link pl.davidduke.service.PersonService}, for example by the dataset loader. There is no
+ * {@link PersonChangedEvent} for them, so listeners have to treat every person as changed.
+ */
+@Value
+public class PeopleReloadedEvent {
+    long rows;
+}
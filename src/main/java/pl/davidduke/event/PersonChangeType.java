@@ -0,0 +1,7 @@
+package pl.davidduke.event;
+
+public enum PersonChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,15 @@
+package pl.davidduke.event;
+
+import lombok.Value;
+import pl.davidduke.dto.PersonDto;
+
+/**
+ * Published by {@link pl.davidduke.service.PersonService} for every mutation. {@code person}
+ * holds the state after the change and is {@code null} for deletions.
+ */
+@Value
+public class PersonChangedEvent {
+    PersonChangeType type;
+    int id;
+    PersonDto person;
+}
@@ -0,0 +1,11 @@
+package pl.davidduke.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class MissingIdException extends RuntimeException {
+    public MissingIdException(int position) {
+        super(String.format("Requested id at position %d is empty.", position));
+    }
+}
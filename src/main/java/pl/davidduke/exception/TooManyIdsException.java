@@ -0,0 +1,11 @@
+package pl.davidduke.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class TooManyIdsException extends RuntimeException {
+    public TooManyIdsException(int requested, int limit) {
+        super(String.format("Requested %d ids, at most %d can be fetched at once.", requested, limit));
+    }
+}
@@ -0,0 +1,11 @@
+package pl.davidduke.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class TooManyUpdatesException extends RuntimeException {
+    public TooManyUpdatesException(int requested, int limit) {
+        super(String.format("Requested %d updates, at most %d can be applied at once.", requested, limit));
+    }
+}
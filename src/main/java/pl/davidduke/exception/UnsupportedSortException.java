@@ -0,0 +1,15 @@
+package pl.davidduke.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.Collection;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnsupportedSortException extends RuntimeException {
+    public UnsupportedSortException(String sort, Collection<String> sortableFields) {
+        super(String.format("Sorting by %s is not supported. Sort case-sensitively by one of %s, "
+                        + "optionally followed by id in the same direction.",
+                sort, String.join(", ", sortableFields)));
+    }
+}
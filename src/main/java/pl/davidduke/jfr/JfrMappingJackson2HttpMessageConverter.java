@@ -0,0 +1,27 @@
+package pl.davidduke.jfr;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Records the time spent writing JSON response bodies as {@code Serialization} events.
+ */
+public class JfrMappingJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public JfrMappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        if (PipelineEvents.isSerializationEnabled()) {
+            PipelineEvents.serialization(() -> super.writeInternal(object, type, outputMessage));
+        } else {
+            super.writeInternal(object, type, outputMessage);
+        }
+    }
+}
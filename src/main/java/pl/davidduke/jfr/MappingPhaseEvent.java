@@ -0,0 +1,11 @@
+package pl.davidduke.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("pl.davidduke.Mapping")
+@Label("Mapping")
+@Description("Conversion between entities and DTOs")
+class MappingPhaseEvent extends PersonPipelineEvent {
+}
@@ -0,0 +1,113 @@
+package pl.davidduke.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.io.ResourceLoader;
+import pl.davidduke.config.JfrProperties;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * A single flight recording started with the bundled pipeline settings and dumped on request.
+ * Recording keeps the last {@code app.jfr.max-age} of events in memory until it is stopped.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OnDemandRecording implements DisposableBean {
+    static final String FILE_PREFIX = "person-pipeline-";
+    static final String FILE_SUFFIX = ".jfr";
+    // sorts like the time it stands for, so the oldest dump comes first by name
+    static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    final JfrProperties properties;
+    final ResourceLoader resourceLoader;
+    Recording recording;
+
+    public synchronized boolean start() throws IOException, ParseException {
+        if (isRunning()) {
+            return false;
+        }
+        Configuration configuration;
+        try (Reader reader = new InputStreamReader(
+                resourceLoader.getResource(properties.getSettings()).getInputStream(), StandardCharsets.UTF_8)) {
+            configuration = Configuration.create(reader);
+        }
+        recording = new Recording(configuration);
+        recording.setName("person-pipeline");
+        recording.setToDisk(true);
+        recording.setMaxAge(properties.getMaxAge());
+        recording.start();
+        log.info("Started flight recording with settings {}", properties.getSettings());
+        return true;
+    }
+
+    /**
+     * Writes the events recorded so far to a new file in the dump directory, leaving the
+     * recording running, and deletes the oldest dumps beyond {@code app.jfr.max-dumps}.
+     */
+    public synchronized Path dump() throws IOException {
+        if (!isRunning()) {
+            throw new IllegalStateException("No flight recording is running");
+        }
+        Files.createDirectories(properties.getDumpDirectory());
+        Path file = properties.getDumpDirectory()
+                .resolve(FILE_PREFIX + LocalDateTime.now().format(FILE_TIMESTAMP) + FILE_SUFFIX);
+        recording.dump(file);
+        log.info("Dumped flight recording to {}", file);
+        deleteOldDumps();
+        return file;
+    }
+
+    private void deleteOldDumps() throws IOException {
+        List<Path> dumps;
+        try (Stream<Path> files = Files.list(properties.getDumpDirectory())) {
+            dumps = files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+        for (Path dump : dumps.subList(0, Math.max(0, dumps.size() - properties.getMaxDumps()))) {
+            Files.deleteIfExists(dump);
+            log.info("Deleted old flight recording dump {}", dump);
+        }
+    }
+
+    public synchronized boolean stop() {
+        if (!isRunning()) {
+            return false;
+        }
+        recording.close();
+        recording = null;
+        log.info("Stopped flight recording");
+        return true;
+    }
+
+    public synchronized boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    @Override
+    public void destroy() {
+        stop();
+    }
+}
@@ -0,0 +1,20 @@
+package pl.davidduke.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Common fields of the events recorded around the phases of a {@code PersonController} request.
+ * The endpoint and person id are taken from {@link PipelineContext} when the event is committed.
+ */
+@Category({"Simple REST", "Person API"})
+@StackTrace(false)
+abstract class PersonPipelineEvent extends Event {
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Person ID")
+    int personId;
+}
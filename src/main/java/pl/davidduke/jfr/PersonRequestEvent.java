@@ -0,0 +1,16 @@
+package pl.davidduke.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("pl.davidduke.PersonRequest")
+@Label("Person Request")
+@Description("Whole handling of a person API request")
+class PersonRequestEvent extends PersonPipelineEvent {
+    @Label("HTTP Method")
+    String method;
+
+    @Label("Status")
+    int status;
+}
@@ -0,0 +1,22 @@
+package pl.davidduke.jfr;
+
+/**
+ * Endpoint and person id of the request handled by the current thread, attached to every
+ * pipeline event committed while it runs.
+ */
+public record PipelineContext(String endpoint, int personId) {
+    static final PipelineContext NONE = new PipelineContext(null, 0);
+    private static final ThreadLocal<PipelineContext> CURRENT = ThreadLocal.withInitial(() -> NONE);
+
+    public static PipelineContext current() {
+        return CURRENT.get();
+    }
+
+    public static void set(PipelineContext context) {
+        CURRENT.set(context);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
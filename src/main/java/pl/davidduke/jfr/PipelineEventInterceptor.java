@@ -0,0 +1,51 @@
+package pl.davidduke.jfr;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Sets up the {@link PipelineContext} for a request and records the {@code PersonRequest} event
+ * spanning it. The endpoint is the name of the handler method.
+ */
+public class PipelineEventInterceptor implements AsyncHandlerInterceptor {
+    static final String REQUEST_EVENT_ATTRIBUTE = PipelineEventInterceptor.class.getName() + ".REQUEST_EVENT";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            PipelineContext.set(new PipelineContext(handlerMethod.getMethod().getName(), personId(request)));
+            request.setAttribute(REQUEST_EVENT_ATTRIBUTE, PipelineEvents.beginRequest());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(REQUEST_EVENT_ATTRIBUTE) instanceof PersonRequestEvent event) {
+            PipelineEvents.endRequest(event, request.getMethod(), response.getStatus());
+            PipelineContext.clear();
+        }
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        PipelineContext.clear();
+    }
+
+    private static int personId(HttpServletRequest request) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables instanceof Map<?, ?> map && map.get("id") instanceof String id) {
+            try {
+                return Integer.parseInt(id);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+}
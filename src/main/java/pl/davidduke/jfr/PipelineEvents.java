@@ -0,0 +1,125 @@
+package pl.davidduke.jfr;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Wraps a phase of the request pipeline in a JFR event. While no recording enables the event,
+ * {@code begin}/{@code commit} are no-ops and the event allocation is eliminated by the JIT.
+ * The lambda passed in is not: when it captures arguments, callers check the matching
+ * {@code is...Enabled()} first and call the phase directly while it is off.
+ */
+public final class PipelineEvents {
+    // only asked whether their event type is enabled, never begun or committed
+    private static final ValidationPhaseEvent VALIDATION_PROBE = new ValidationPhaseEvent();
+    private static final RepositoryPhaseEvent REPOSITORY_PROBE = new RepositoryPhaseEvent();
+    private static final MappingPhaseEvent MAPPING_PROBE = new MappingPhaseEvent();
+    private static final SerializationPhaseEvent SERIALIZATION_PROBE = new SerializationPhaseEvent();
+
+    private PipelineEvents() {
+    }
+
+    public static boolean isValidationEnabled() {
+        return VALIDATION_PROBE.isEnabled();
+    }
+
+    public static boolean isRepositoryEnabled() {
+        return REPOSITORY_PROBE.isEnabled();
+    }
+
+    public static boolean isMappingEnabled() {
+        return MAPPING_PROBE.isEnabled();
+    }
+
+    public static boolean isSerializationEnabled() {
+        return SERIALIZATION_PROBE.isEnabled();
+    }
+
+    public static boolean validation(String constraint, BooleanSupplier validation) {
+        ValidationPhaseEvent event = new ValidationPhaseEvent();
+        event.begin();
+        try {
+            return validation.getAsBoolean();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.constraint = constraint;
+                commit(event);
+            }
+        }
+    }
+
+    public static <T> T repository(String operation, Supplier<T> call) {
+        RepositoryPhaseEvent event = new RepositoryPhaseEvent();
+        event.begin();
+        try {
+            return call.get();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                commit(event);
+            }
+        }
+    }
+
+    public static void repository(String operation, Runnable call) {
+        repository(operation, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public static <T> T mapping(Supplier<T> mapping) {
+        MappingPhaseEvent event = new MappingPhaseEvent();
+        event.begin();
+        try {
+            return mapping.get();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                commit(event);
+            }
+        }
+    }
+
+    public static <E extends Exception> void serialization(ThrowingRunnable<E> serialization) throws E {
+        SerializationPhaseEvent event = new SerializationPhaseEvent();
+        event.begin();
+        try {
+            serialization.run();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                commit(event);
+            }
+        }
+    }
+
+    static PersonRequestEvent beginRequest() {
+        PersonRequestEvent event = new PersonRequestEvent();
+        event.begin();
+        return event;
+    }
+
+    static void endRequest(PersonRequestEvent event, String method, int status) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.method = method;
+            event.status = status;
+            commit(event);
+        }
+    }
+
+    private static void commit(PersonPipelineEvent event) {
+        PipelineContext context = PipelineContext.current();
+        event.endpoint = context.endpoint();
+        event.personId = context.personId();
+        event.commit();
+    }
+
+    @FunctionalInterface
+    public interface ThrowingRunnable<E extends Exception> {
+        void run() throws E;
+    }
+}
@@ -0,0 +1,13 @@
+package pl.davidduke.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("pl.davidduke.Repository")
+@Label("Repository Call")
+@Description("Call into the person store")
+class RepositoryPhaseEvent extends PersonPipelineEvent {
+    @Label("Operation")
+    String operation;
+}
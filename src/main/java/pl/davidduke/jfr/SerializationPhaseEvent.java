@@ -0,0 +1,11 @@
+package pl.davidduke.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("pl.davidduke.Serialization")
+@Label("JSON Serialization")
+@Description("Writing the response body")
+class SerializationPhaseEvent extends PersonPipelineEvent {
+}
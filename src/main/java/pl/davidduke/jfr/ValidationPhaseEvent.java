@@ -0,0 +1,13 @@
+package pl.davidduke.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("pl.davidduke.Validation")
+@Label("Validation")
+@Description("Validation of a request constraint")
+class ValidationPhaseEvent extends PersonPipelineEvent {
+    @Label("Constraint")
+    String constraint;
+}
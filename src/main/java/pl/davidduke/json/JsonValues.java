@@ -0,0 +1,50 @@
+package pl.davidduke.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+import java.io.IOException;
+
+final class JsonValues {
+
+    private JsonValues() {
+    }
+
+    /**
+     * Reads the current scalar as a string, coercing numbers and booleans like Jackson does.
+     */
+    static String readString(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        String value = parser.getValueAsString();
+        return value != null ? value : (String) context.handleUnexpectedToken(String.class, parser);
+    }
+
+    /**
+     * Reads the current token as an {@code int}. Only integral JSON numbers are accepted; strings,
+     * fractions and {@code null} fail with a mismatched input error instead of becoming zero.
+     */
+    static int readInt(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+        return (Integer) context.handleUnexpectedToken(Integer.TYPE, parser);
+    }
+
+    /**
+     * Moves the parser to the first field of the object it is positioned on.
+     */
+    static JsonToken firstField(JsonParser parser, DeserializationContext context, Class<?> type) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            return parser.nextToken();
+        }
+        if (token == JsonToken.FIELD_NAME || token == JsonToken.END_OBJECT) {
+            return token;
+        }
+        context.handleUnexpectedToken(type, parser);
+        return JsonToken.END_OBJECT;
+    }
+}
@@ -0,0 +1,90 @@
+package pl.davidduke.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Writes and reads ISO {@code yyyy-MM-dd} dates digit by digit instead of going through a
+ * {@link java.time.format.DateTimeFormatter}. Anything outside that form falls back to the
+ * regular {@code jackson-datatype-jsr310} handling.
+ */
+final class LocalDates {
+    private static final int ISO_DATE_LENGTH = 10;
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[ISO_DATE_LENGTH]);
+
+    private LocalDates() {
+    }
+
+    static void write(JsonGenerator generator, LocalDate date) throws IOException {
+        if (date == null) {
+            generator.writeNull();
+            return;
+        }
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            generator.writeString(date.toString());
+            return;
+        }
+        char[] buffer = BUFFER.get();
+        writeDigits(buffer, 0, year, 4);
+        buffer[4] = '-';
+        writeDigits(buffer, 5, date.getMonthValue(), 2);
+        buffer[7] = '-';
+        writeDigits(buffer, 8, date.getDayOfMonth(), 2);
+        generator.writeString(buffer, 0, ISO_DATE_LENGTH);
+    }
+
+    static LocalDate read(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.VALUE_STRING || parser.getTextLength() != ISO_DATE_LENGTH) {
+            return context.readValue(parser, LocalDate.class);
+        }
+        char[] text = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        if (text[offset + 4] != '-' || text[offset + 7] != '-') {
+            return context.readValue(parser, LocalDate.class);
+        }
+        int year = readDigits(text, offset, 4);
+        int month = readDigits(text, offset + 5, 2);
+        int day = readDigits(text, offset + 8, 2);
+        if (year < 0 || month < 0 || day < 0) {
+            return context.readValue(parser, LocalDate.class);
+        }
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            return (LocalDate) context.handleWeirdStringValue(LocalDate.class, parser.getText(), e.getMessage());
+        }
+    }
+
+    private static void writeDigits(char[] buffer, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    /**
+     * @return the parsed number, or -1 when a character is not a digit
+     */
+    private static int readDigits(char[] text, int offset, int width) {
+        int value = 0;
+        for (int i = offset; i < offset + width; i++) {
+            char digit = text[i];
+            if (digit < '0' || digit > '9') {
+                return -1;
+            }
+            value = value * 10 + (digit - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,123 @@
+package pl.davidduke.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link Page} as the envelope clients already receive from the bean introspection of
+ * {@code PageImpl}, field by field and in the same order, so the format no longer depends on
+ * Spring Data internals and no reflection is involved. Works for pages of any content.
+ */
+@SuppressWarnings("rawtypes")
+class PageSerializer extends StdSerializer<Page> {
+    static final SerializedString CONTENT = new SerializedString("content");
+    static final SerializedString PAGEABLE = new SerializedString("pageable");
+    static final SerializedString PAGE_NUMBER = new SerializedString("pageNumber");
+    static final SerializedString PAGE_SIZE = new SerializedString("pageSize");
+    static final SerializedString OFFSET = new SerializedString("offset");
+    static final SerializedString PAGED = new SerializedString("paged");
+    static final SerializedString UNPAGED = new SerializedString("unpaged");
+    static final SerializedString LAST = new SerializedString("last");
+    static final SerializedString TOTAL_ELEMENTS = new SerializedString("totalElements");
+    static final SerializedString TOTAL_PAGES = new SerializedString("totalPages");
+    static final SerializedString SIZE = new SerializedString("size");
+    static final SerializedString NUMBER = new SerializedString("number");
+    static final SerializedString SORT = new SerializedString("sort");
+    static final SerializedString FIRST = new SerializedString("first");
+    static final SerializedString NUMBER_OF_ELEMENTS = new SerializedString("numberOfElements");
+    static final SerializedString EMPTY = new SerializedString("empty");
+    static final SerializedString SORTED = new SerializedString("sorted");
+    static final SerializedString UNSORTED = new SerializedString("unsorted");
+
+    PageSerializer() {
+        super(Page.class);
+    }
+
+    @Override
+    public void serialize(Page page, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(page);
+        generator.writeFieldName(CONTENT);
+        writeContent(page, generator, provider);
+        generator.writeFieldName(PAGEABLE);
+        writePageable(page.getPageable(), generator);
+        generator.writeFieldName(LAST);
+        generator.writeBoolean(page.isLast());
+        generator.writeFieldName(TOTAL_ELEMENTS);
+        generator.writeNumber(page.getTotalElements());
+        generator.writeFieldName(TOTAL_PAGES);
+        generator.writeNumber(page.getTotalPages());
+        generator.writeFieldName(SIZE);
+        generator.writeNumber(page.getSize());
+        generator.writeFieldName(NUMBER);
+        generator.writeNumber(page.getNumber());
+        generator.writeFieldName(SORT);
+        writeSort(page.getSort(), generator);
+        generator.writeFieldName(FIRST);
+        generator.writeBoolean(page.isFirst());
+        generator.writeFieldName(NUMBER_OF_ELEMENTS);
+        generator.writeNumber(page.getNumberOfElements());
+        generator.writeFieldName(EMPTY);
+        generator.writeBoolean(page.isEmpty());
+        generator.writeEndObject();
+    }
+
+    private static void writeContent(Page<?> page, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeStartArray(page, page.getNumberOfElements());
+        Class<?> lastType = null;
+        JsonSerializer<Object> serializer = null;
+        for (Object element : page.getContent()) {
+            if (element == null) {
+                provider.defaultSerializeNull(generator);
+                continue;
+            }
+            if (element.getClass() != lastType) {
+                lastType = element.getClass();
+                serializer = provider.findValueSerializer(lastType);
+            }
+            serializer.serialize(element, generator, provider);
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writePageable(Pageable pageable, JsonGenerator generator) throws IOException {
+        if (pageable.isUnpaged()) {
+            // same as Spring Data's PageModule writes Unpaged, so the wire format does not change
+            generator.writeString("INSTANCE");
+            return;
+        }
+        generator.writeStartObject();
+        generator.writeFieldName(PAGE_NUMBER);
+        generator.writeNumber(pageable.getPageNumber());
+        generator.writeFieldName(PAGE_SIZE);
+        generator.writeNumber(pageable.getPageSize());
+        generator.writeFieldName(SORT);
+        writeSort(pageable.getSort(), generator);
+        generator.writeFieldName(OFFSET);
+        generator.writeNumber(pageable.getOffset());
+        generator.writeFieldName(PAGED);
+        generator.writeBoolean(true);
+        generator.writeFieldName(UNPAGED);
+        generator.writeBoolean(false);
+        generator.writeEndObject();
+    }
+
+    private static void writeSort(Sort sort, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(EMPTY);
+        generator.writeBoolean(sort.isEmpty());
+        generator.writeFieldName(SORTED);
+        generator.writeBoolean(sort.isSorted());
+        generator.writeFieldName(UNSORTED);
+        generator.writeBoolean(sort.isUnsorted());
+        generator.writeEndObject();
+    }
+}
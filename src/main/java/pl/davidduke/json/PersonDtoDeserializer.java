@@ -0,0 +1,36 @@
+package pl.davidduke.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import pl.davidduke.dto.PersonDto;
+
+import java.io.IOException;
+
+class PersonDtoDeserializer extends StdDeserializer<PersonDto> {
+
+    PersonDtoDeserializer() {
+        super(PersonDto.class);
+    }
+
+    @Override
+    public PersonDto deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        PersonDto.PersonDtoBuilder person = PersonDto.builder();
+        for (JsonToken token = JsonValues.firstField(parser, context, PersonDto.class);
+             token == JsonToken.FIELD_NAME;
+             token = parser.nextToken()) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "id" -> person.id(JsonValues.readInt(parser, context));
+                case "firstName" -> person.firstName(JsonValues.readString(parser, context));
+                case "lastName" -> person.lastName(JsonValues.readString(parser, context));
+                case "birthday" -> person.birthday(LocalDates.read(parser, context));
+                case "ipn" -> person.ipn(JsonValues.readString(parser, context));
+                default -> context.handleUnknownProperty(parser, this, PersonDto.class, field);
+            }
+        }
+        return person.build();
+    }
+}
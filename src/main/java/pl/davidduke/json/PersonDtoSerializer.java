@@ -0,0 +1,37 @@
+package pl.davidduke.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import pl.davidduke.dto.PersonDto;
+
+import java.io.IOException;
+
+class PersonDtoSerializer extends StdSerializer<PersonDto> {
+    static final SerializedString ID = new SerializedString("id");
+    static final SerializedString FIRST_NAME = new SerializedString("firstName");
+    static final SerializedString LAST_NAME = new SerializedString("lastName");
+    static final SerializedString BIRTHDAY = new SerializedString("birthday");
+    static final SerializedString IPN = new SerializedString("ipn");
+
+    PersonDtoSerializer() {
+        super(PersonDto.class);
+    }
+
+    @Override
+    public void serialize(PersonDto person, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(person);
+        generator.writeFieldName(ID);
+        generator.writeNumber(person.getId());
+        generator.writeFieldName(FIRST_NAME);
+        generator.writeString(person.getFirstName());
+        generator.writeFieldName(LAST_NAME);
+        generator.writeString(person.getLastName());
+        generator.writeFieldName(BIRTHDAY);
+        LocalDates.write(generator, person.getBirthday());
+        generator.writeFieldName(IPN);
+        generator.writeString(person.getIpn());
+        generator.writeEndObject();
+    }
+}
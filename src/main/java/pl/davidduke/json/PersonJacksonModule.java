@@ -0,0 +1,30 @@
+package pl.davidduke.json;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import pl.davidduke.dto.PersonDto;
+import pl.davidduke.dto.RequestPersonDto;
+
+/**
+ * Streaming serializers for the person DTOs and page envelopes, picked up by Spring Boot's
+ * {@code ObjectMapper}. They replace bean introspection and the formatter based
+ * {@code LocalDate} handling on the hot request and response paths.
+ * <p>
+ * The page serializer is registered for every {@link Page} the application writes, whatever
+ * its content. It writes the same envelope as the default bean serialization of
+ * {@code PageImpl} and hands the content to the serializers registered for it, so pages of
+ * other types keep their format.
+ */
+@Component
+public class PersonJacksonModule extends SimpleModule {
+
+    public PersonJacksonModule() {
+        super(PersonJacksonModule.class.getSimpleName());
+        addSerializer(PersonDto.class, new PersonDtoSerializer());
+        addDeserializer(PersonDto.class, new PersonDtoDeserializer());
+        addSerializer(RequestPersonDto.class, new RequestPersonDtoSerializer());
+        addDeserializer(RequestPersonDto.class, new RequestPersonDtoDeserializer());
+        addSerializer(Page.class, new PageSerializer());
+    }
+}
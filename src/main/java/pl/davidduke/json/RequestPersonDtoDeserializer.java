@@ -0,0 +1,35 @@
+package pl.davidduke.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import pl.davidduke.dto.RequestPersonDto;
+
+import java.io.IOException;
+
+class RequestPersonDtoDeserializer extends StdDeserializer<RequestPersonDto> {
+
+    RequestPersonDtoDeserializer() {
+        super(RequestPersonDto.class);
+    }
+
+    @Override
+    public RequestPersonDto deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        RequestPersonDto.RequestPersonDtoBuilder person = RequestPersonDto.builder();
+        for (JsonToken token = JsonValues.firstField(parser, context, RequestPersonDto.class);
+             token == JsonToken.FIELD_NAME;
+             token = parser.nextToken()) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "firstName" -> person.firstName(JsonValues.readString(parser, context));
+                case "lastName" -> person.lastName(JsonValues.readString(parser, context));
+                case "birthday" -> person.birthday(LocalDates.read(parser, context));
+                case "ipn" -> person.ipn(JsonValues.readString(parser, context));
+                default -> context.handleUnknownProperty(parser, this, RequestPersonDto.class, field);
+            }
+        }
+        return person.build();
+    }
+}
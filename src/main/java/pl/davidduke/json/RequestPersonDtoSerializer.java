@@ -0,0 +1,35 @@
+package pl.davidduke.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import pl.davidduke.dto.RequestPersonDto;
+
+import java.io.IOException;
+
+import static pl.davidduke.json.PersonDtoSerializer.BIRTHDAY;
+import static pl.davidduke.json.PersonDtoSerializer.FIRST_NAME;
+import static pl.davidduke.json.PersonDtoSerializer.IPN;
+import static pl.davidduke.json.PersonDtoSerializer.LAST_NAME;
+
+class RequestPersonDtoSerializer extends StdSerializer<RequestPersonDto> {
+
+    RequestPersonDtoSerializer() {
+        super(RequestPersonDto.class);
+    }
+
+    @Override
+    public void serialize(RequestPersonDto person, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeStartObject(person);
+        generator.writeFieldName(FIRST_NAME);
+        generator.writeString(person.getFirstName());
+        generator.writeFieldName(LAST_NAME);
+        generator.writeString(person.getLastName());
+        generator.writeFieldName(BIRTHDAY);
+        LocalDates.write(generator, person.getBirthday());
+        generator.writeFieldName(IPN);
+        generator.writeString(person.getIpn());
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,499 @@
+package pl.davidduke.memory;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import pl.davidduke.entity.Person;
+import pl.davidduke.exception.IpnAlreadyExistsException;
+import pl.davidduke.repository.PersonSort;
+import pl.davidduke.repository.PersonStore;
+import pl.davidduke.util.IntIntHashMap;
+import pl.davidduke.util.LongIntHashMap;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Keeps people in process memory, one array per column. Rows are looked up through an
+ * id index and an IPN index, the IPN being stored as a number. Deleting a person moves the
+ * last row into its place, so the columns never have holes.
+ * <p>
+ * Any number of readers run in parallel while writes are serialized behind a single write
+ * lock. For every sortable field the rows are kept in an {@code int[]} ordered by the field and
+ * id; writes move the affected rows within those orders instead of invalidating them, and pages
+ * in either direction are read straight from them. Nothing survives a restart unless a
+ * snapshot is restored through {@link #insertAll(List)}.
+ * <p>
+ * Every write checks the person before touching a column, index or order, so a failed
+ * {@link #save(Person)} changes nothing, and {@link #updateAll(List)} and
+ * {@link #insertAll(List)} write either all people or none.
+ */
+@Component
+@ConditionalOnProperty(name = "app.person-store", havingValue = "in-memory")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class InMemoryPersonStore implements PersonStore {
+    static final int INITIAL_CAPACITY = 1_024;
+    static final int MISSING = -1;
+    static final long NO_IPN = -1;
+    static final List<String> ORDERED_FIELDS = List.copyOf(PersonSort.COLUMNS.keySet());
+    static final int ID_ORDER = ORDERED_FIELDS.indexOf("id");
+
+    final ReadWriteLock lock = new ReentrantReadWriteLock();
+    final IntIntHashMap idIndex = new IntIntHashMap(INITIAL_CAPACITY);
+    final LongIntHashMap ipnIndex = new LongIntHashMap(INITIAL_CAPACITY);
+    int[] ids = new int[INITIAL_CAPACITY];
+    String[] firstNames = new String[INITIAL_CAPACITY];
+    String[] lastNames = new String[INITIAL_CAPACITY];
+    int[] birthdays = new int[INITIAL_CAPACITY];
+    long[] ipns = new long[INITIAL_CAPACITY];
+    int[][] orders = new int[ORDERED_FIELDS.size()][INITIAL_CAPACITY];
+    int size;
+    int lastId;
+
+    @Override
+    public Optional<Person> findById(int id) {
+        lock.readLock().lock();
+        try {
+            int row = idIndex.get(id, MISSING);
+            return row == MISSING ? Optional.empty() : Optional.of(toPerson(row));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Person> findAllById(Collection<Integer> ids) {
+        lock.readLock().lock();
+        try {
+            List<Person> people = new ArrayList<>(ids.size());
+            ids.stream().distinct().forEach(id -> {
+                int row = idIndex.get(id, MISSING);
+                if (row != MISSING) {
+                    people.add(toPerson(row));
+                }
+            });
+            return people;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Person> findByIpn(String ipn) {
+        lock.readLock().lock();
+        try {
+            int row = ipnIndex.get(ipnKey(ipn), MISSING);
+            return row == MISSING ? Optional.empty() : Optional.of(toPerson(row));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Person> findAllByIpn(Collection<String> ipns) {
+        lock.readLock().lock();
+        try {
+            List<Person> people = new ArrayList<>(ipns.size());
+            ipns.stream().distinct().forEach(ipn -> {
+                int row = ipnIndex.get(ipnKey(ipn), MISSING);
+                if (row != MISSING) {
+                    people.add(toPerson(row));
+                }
+            });
+            return people;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Pages through the rows in the requested order, completed by {@link PersonSort} like the other
+     * stores. A descending sort reads the ascending order of its field from the end.
+     */
+    @Override
+    public Page<Person> findAll(Pageable pageable) {
+        Sort.Order sortOrder = PersonSort.stable(pageable.getSort()).iterator().next();
+        int field = ORDERED_FIELDS.indexOf(sortOrder.getProperty());
+
+        lock.readLock().lock();
+        try {
+            int[] order = orders[field];
+            int from = (int) Math.min(pageable.isPaged() ? pageable.getOffset() : 0, size);
+            int to = pageable.isPaged() ? (int) Math.min((long) from + pageable.getPageSize(), size) : size;
+            List<Person> content = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                content.add(toPerson(order[sortOrder.isAscending() ? i : size - 1 - i]));
+            }
+            return new PageImpl<>(content, pageable, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Person> findAllAfterId(int afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            int[] order = orders[ID_ORDER];
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (ids[order[middle]] <= afterId) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            List<Person> people = new ArrayList<>(Math.min(limit, size - low));
+            for (int i = low; i < size && people.size() < limit; i++) {
+                people.add(toPerson(order[i]));
+            }
+            return people;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Person save(Person person) {
+        long ipn = writtenIpnKey(person);
+        int birthday = birthdayKey(person);
+        lock.writeLock().lock();
+        try {
+            return saveLocked(person, ipn, birthday);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Validates every person before writing the first one and applies them one by one under a
+     * single write lock. When a write still fails, for example on an IPN taken by a person
+     * outside the batch, the people already written are put back in reverse order, so either
+     * all updates are visible or none.
+     */
+    @Override
+    public void updateAll(List<Person> people) {
+        long[] ipnKeys = new long[people.size()];
+        int[] birthdayKeys = new int[people.size()];
+        for (int i = 0; i < people.size(); i++) {
+            ipnKeys[i] = writtenIpnKey(people.get(i));
+            birthdayKeys[i] = birthdayKey(people.get(i));
+        }
+        lock.writeLock().lock();
+        try {
+            int previousLastId = lastId;
+            List<Person> written = new ArrayList<>(people.size());
+            try {
+                for (int i = 0; i < people.size(); i++) {
+                    Person person = people.get(i);
+                    int row = person.getId() == 0 ? MISSING : idIndex.get(person.getId(), MISSING);
+                    Person before = row == MISSING ? null : toPerson(row);
+                    saveLocked(person, ipnKeys[i], birthdayKeys[i]);
+                    written.add(before);
+                }
+            } catch (RuntimeException e) {
+                for (int i = written.size() - 1; i >= 0; i--) {
+                    Person before = written.get(i);
+                    if (before == null) {
+                        deleteLocked(people.get(i).getId());
+                    } else {
+                        saveLocked(before, ipnKey(before.getIpn()), birthdayKey(before));
+                    }
+                }
+                lastId = previousLastId;
+                throw e;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes one person whose column values were already validated. All checks run before the
+     * first column, index or order is touched.
+     */
+    private Person saveLocked(Person person, long ipn, int birthday) {
+        int row = person.getId() == 0 ? MISSING : idIndex.get(person.getId(), MISSING);
+        int ipnOwner = ipnIndex.get(ipn, MISSING);
+        if (ipnOwner != MISSING && ipnOwner != row) {
+            throw new IpnAlreadyExistsException(person.getIpn());
+        }
+        boolean inserted = row == MISSING;
+        if (inserted) {
+            if (person.getId() == 0) {
+                person.setId(lastId + 1);
+            }
+            row = appendRow(person.getId());
+        } else {
+            ipnIndex.remove(ipns[row], MISSING);
+            for (int field = 0; field < orders.length; field++) {
+                if (field != ID_ORDER) {
+                    removeFromOrder(field, row);
+                }
+            }
+        }
+        firstNames[row] = person.getFirstName();
+        lastNames[row] = person.getLastName();
+        birthdays[row] = birthday;
+        ipns[row] = ipn;
+        ipnIndex.put(ipn, row);
+        for (int field = 0; field < orders.length; field++) {
+            if (inserted || field != ID_ORDER) {
+                insertIntoOrder(field, row);
+            }
+        }
+        return person;
+    }
+
+    /**
+     * Appends all people first and sorts every order once afterwards, instead of moving rows
+     * within the orders person by person. Either all people are inserted or, when one of them
+     * has a malformed IPN or an id or IPN already present, none.
+     */
+    @Override
+    public void insertAll(List<Person> people) {
+        lock.writeLock().lock();
+        int start = size;
+        int previousLastId = lastId;
+        try {
+            for (Person person : people) {
+                long ipn = writtenIpnKey(person);
+                int birthday = birthdayKey(person);
+                if (ipnIndex.get(ipn, MISSING) != MISSING) {
+                    throw new IpnAlreadyExistsException(person.getIpn());
+                }
+                if (person.getId() != 0 && idIndex.get(person.getId(), MISSING) != MISSING) {
+                    throw new IllegalArgumentException("Person " + person.getId() + " already exists");
+                }
+                if (person.getId() == 0) {
+                    person.setId(lastId + 1);
+                }
+                int row = appendRow(person.getId());
+                firstNames[row] = person.getFirstName();
+                lastNames[row] = person.getLastName();
+                birthdays[row] = birthday;
+                ipns[row] = ipn;
+                ipnIndex.put(ipn, row);
+            }
+            for (int field = 0; field < orders.length; field++) {
+                sortOrder(field);
+            }
+        } catch (RuntimeException e) {
+            for (int row = start; row < size; row++) {
+                idIndex.remove(ids[row], MISSING);
+                ipnIndex.remove(ipns[row], MISSING);
+                firstNames[row] = null;
+                lastNames[row] = null;
+            }
+            size = start;
+            lastId = previousLastId;
+            throw e;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteById(int id) {
+        lock.writeLock().lock();
+        try {
+            deleteLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void deleteLocked(int id) {
+        int row = idIndex.remove(id, MISSING);
+        if (row == MISSING) {
+            return;
+        }
+        ipnIndex.remove(ipns[row], MISSING);
+        int last = size - 1;
+        for (int field = 0; field < orders.length; field++) {
+            removeFromOrder(field, row);
+            if (row != last) {
+                orders[field][positionInOrder(field, last)] = row;
+            }
+        }
+        size = last;
+        if (row != last) {
+            ids[row] = ids[last];
+            firstNames[row] = firstNames[last];
+            lastNames[row] = lastNames[last];
+            birthdays[row] = birthdays[last];
+            ipns[row] = ipns[last];
+            idIndex.put(ids[row], row);
+            ipnIndex.put(ipns[row], row);
+        }
+        firstNames[last] = null;
+        lastNames[last] = null;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int appendRow(int id) {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            firstNames = Arrays.copyOf(firstNames, capacity);
+            lastNames = Arrays.copyOf(lastNames, capacity);
+            birthdays = Arrays.copyOf(birthdays, capacity);
+            ipns = Arrays.copyOf(ipns, capacity);
+            for (int field = 0; field < orders.length; field++) {
+                orders[field] = Arrays.copyOf(orders[field], capacity);
+            }
+        }
+        int row = size++;
+        ids[row] = id;
+        idIndex.put(id, row);
+        lastId = Math.max(lastId, id);
+        return row;
+    }
+
+    private void sortOrder(int field) {
+        int[] sorted = IntStream.range(0, size)
+                .boxed()
+                .sorted((first, second) -> compareRows(field, first, second))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        System.arraycopy(sorted, 0, orders[field], 0, size);
+    }
+
+    private Person toPerson(int row) {
+        return Person.builder()
+                .id(ids[row])
+                .firstName(firstNames[row])
+                .lastName(lastNames[row])
+                .birthday(LocalDate.ofEpochDay(birthdays[row]))
+                .ipn(ipnText(ipns[row]))
+                .build();
+    }
+
+    /**
+     * Inserts {@code row}, already written to the columns and counted in {@link #size}, into the
+     * order of {@code field}, which holds all other rows.
+     */
+    private void insertIntoOrder(int field, int row) {
+        int[] order = orders[field];
+        int length = size - 1;
+        int position = -searchOrder(field, row, length) - 1;
+        System.arraycopy(order, position, order, position + 1, length - position);
+        order[position] = row;
+    }
+
+    /**
+     * Takes {@code row} out of the order of {@code field} while its values are still in the columns.
+     */
+    private void removeFromOrder(int field, int row) {
+        int[] order = orders[field];
+        int position = searchOrder(field, row, size);
+        System.arraycopy(order, position + 1, order, position, size - position - 1);
+    }
+
+    /**
+     * Position of {@code row} in the order of {@code field} after another row was taken out of it.
+     */
+    private int positionInOrder(int field, int row) {
+        return searchOrder(field, row, size - 1);
+    }
+
+    private int searchOrder(int field, int row, int length) {
+        int[] order = orders[field];
+        int low = 0;
+        int high = length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareRows(field, order[middle], row);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -low - 1;
+    }
+
+    private int compareRows(int field, int first, int second) {
+        int comparison = switch (ORDERED_FIELDS.get(field)) {
+            case "firstName" -> firstNames[first].compareTo(firstNames[second]);
+            case "lastName" -> lastNames[first].compareTo(lastNames[second]);
+            case "birthday" -> Integer.compare(birthdays[first], birthdays[second]);
+            default -> 0;
+        };
+        return comparison != 0 ? comparison : Integer.compare(ids[first], ids[second]);
+    }
+
+    /**
+     * The IPN of a person about to be written, checked before the write touches anything.
+     */
+    private static long writtenIpnKey(Person person) {
+        long ipn = ipnKey(person.getIpn());
+        if (ipn == NO_IPN) {
+            throw new IllegalArgumentException("IPN must consist of ten digits: " + person.getIpn());
+        }
+        return ipn;
+    }
+
+    /**
+     * The birthday of a person about to be written as epoch day, checked together with the names
+     * the orders compare, before the write touches anything.
+     */
+    private static int birthdayKey(Person person) {
+        if (person.getFirstName() == null || person.getLastName() == null || person.getBirthday() == null) {
+            throw new IllegalArgumentException("Person " + person.getId() + " misses a name or birthday");
+        }
+        return Math.toIntExact(person.getBirthday().toEpochDay());
+    }
+
+    /**
+     * IPNs are validated to ten digits, so they fit into a long. Anything else, which can only
+     * come from a lookup, maps to {@link #NO_IPN} and is never found.
+     */
+    static long ipnKey(String ipn) {
+        if (ipn == null || ipn.length() != 10) {
+            return NO_IPN;
+        }
+        long key = 0;
+        for (int i = 0; i < ipn.length(); i++) {
+            char digit = ipn.charAt(i);
+            if (digit < '0' || digit > '9') {
+                return NO_IPN;
+            }
+            key = key * 10 + (digit - '0');
+        }
+        return key;
+    }
+
+    private static String ipnText(long ipn) {
+        char[] digits = new char[10];
+        for (int i = digits.length - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + ipn % 10);
+            ipn /= 10;
+        }
+        return new String(digits);
+    }
+}
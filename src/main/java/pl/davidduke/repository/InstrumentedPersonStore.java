@@ -0,0 +1,100 @@
+package pl.davidduke.repository;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import pl.davidduke.entity.Person;
+import pl.davidduke.jfr.PipelineEvents;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Records every call as a JFR {@code Repository} event around the selected store, the way
+ * {@link pl.davidduke.util.PersonMapperDecorator} does for the mapper. Calls go straight to the
+ * store while the event is disabled.
+ */
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class InstrumentedPersonStore implements PersonStore {
+    PersonStore delegate;
+
+    @Override
+    public Optional<Person> findById(int id) {
+        return PipelineEvents.isRepositoryEnabled()
+                ? PipelineEvents.repository("findById", () -> delegate.findById(id))
+                : delegate.findById(id);
+    }
+
+    @Override
+    public List<Person> findAllById(Collection<Integer> ids) {
+        return PipelineEvents.isRepositoryEnabled()
+                ? PipelineEvents.repository("findAllById", () -> delegate.findAllById(ids))
+                : delegate.findAllById(ids);
+    }
+
+    @Override
+    public Page<Person> findAll(Pageable pageable) {
+        return PipelineEvents.isRepositoryEnabled()
+                ? PipelineEvents.repository("findAll", () -> delegate.findAll(pageable))
+                : delegate.findAll(pageable);
+    }
+
+    @Override
+    public List<Person> findAllAfterId(int afterId, int limit) {
+        return PipelineEvents.isRepositoryEnabled()
+                ? PipelineEvents.repository("findAllAfterId", () -> delegate.findAllAfterId(afterId, limit))
+                : delegate.findAllAfterId(afterId, limit);
+    }
+
+    @Override
+    public Optional<Person> findByIpn(String ipn) {
+        return PipelineEvents.isRepositoryEnabled()
+                ? PipelineEvents.repository("findByIpn", () -> delegate.findByIpn(ipn))
+                : delegate.findByIpn(ipn);
+    }
+
+    @Override
+    public List<Person> findAllByIpn(Collection<String> ipns) {
+        return PipelineEvents.isRepositoryEnabled()
+                ? PipelineEvents.repository("findAllByIpn", () -> delegate.findAllByIpn(ipns))
+                : delegate.findAllByIpn(ipns);
+    }
+
+    @Override
+    public Person save(Person person) {
+        return PipelineEvents.isRepositoryEnabled()
+                ? PipelineEvents.repository("save", () -> delegate.save(person))
+                : delegate.save(person);
+    }
+
+    @Override
+    public void updateAll(List<Person> people) {
+        if (PipelineEvents.isRepositoryEnabled()) {
+            PipelineEvents.repository("updateAll", () -> delegate.updateAll(people));
+        } else {
+            delegate.updateAll(people);
+        }
+    }
+
+    @Override
+    public void insertAll(List<Person> people) {
+        if (PipelineEvents.isRepositoryEnabled()) {
+            PipelineEvents.repository("insertAll", () -> delegate.insertAll(people));
+        } else {
+            delegate.insertAll(people);
+        }
+    }
+
+    @Override
+    public void deleteById(int id) {
+        if (PipelineEvents.isRepositoryEnabled()) {
+            PipelineEvents.repository("deleteById", () -> delegate.deleteById(id));
+        } else {
+            delegate.deleteById(id);
+        }
+    }
+}
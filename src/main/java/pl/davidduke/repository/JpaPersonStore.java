@@ -0,0 +1,100 @@
+package pl.davidduke.repository;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import pl.davidduke.entity.Person;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+@ConditionalOnProperty(name = "app.person-store", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class JpaPersonStore implements PersonStore {
+    static final String UPDATE_SQL = "UPDATE person SET first_name = ?, last_name = ?, birthday = ?, ipn = ? WHERE id = ?";
+    static final String INSERT_SQL = "INSERT INTO person (id, first_name, last_name, birthday, ipn) VALUES (?, ?, ?, ?, ?)";
+    static final int UPDATE_BATCH_SIZE = 500;
+
+    PersonRepository personRepository;
+    JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<Person> findById(int id) {
+        return personRepository.findById(id);
+    }
+
+    @Override
+    public List<Person> findAllById(Collection<Integer> ids) {
+        return personRepository.findAllById(ids);
+    }
+
+    @Override
+    public Page<Person> findAll(Pageable pageable) {
+        return personRepository.findAll(pageable);
+    }
+
+    @Override
+    public List<Person> findAllAfterId(int afterId, int limit) {
+        return personRepository.findAllByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+    }
+
+    @Override
+    public Optional<Person> findByIpn(String ipn) {
+        return personRepository.findByIpn(ipn);
+    }
+
+    @Override
+    public List<Person> findAllByIpn(Collection<String> ipns) {
+        return personRepository.findAllByIpnIn(ipns);
+    }
+
+    @Override
+    public Person save(Person person) {
+        return personRepository.save(person);
+    }
+
+    /**
+     * Sends the updates as JDBC batches on the connection of the current transaction, instead of
+     * loading and flushing one entity per person.
+     */
+    @Override
+    public void updateAll(List<Person> people) {
+        jdbcTemplate.batchUpdate(UPDATE_SQL, people, UPDATE_BATCH_SIZE, (statement, person) -> {
+            statement.setString(1, person.getFirstName());
+            statement.setString(2, person.getLastName());
+            statement.setObject(3, person.getBirthday());
+            statement.setString(4, person.getIpn());
+            statement.setInt(5, person.getId());
+        });
+    }
+
+    /**
+     * Sends the rows with their ids as JDBC batches in the caller's transaction. The identity
+     * column is left where it is, because moving it is DDL and would commit that transaction;
+     * callers restart it past the largest id once all rows are in.
+     */
+    @Override
+    public void insertAll(List<Person> people) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, people, UPDATE_BATCH_SIZE, (statement, person) -> {
+            statement.setInt(1, person.getId());
+            statement.setString(2, person.getFirstName());
+            statement.setString(3, person.getLastName());
+            statement.setObject(4, person.getBirthday());
+            statement.setString(5, person.getIpn());
+        });
+    }
+
+    @Override
+    public void deleteById(int id) {
+        personRepository.deleteById(id);
+    }
+}
@@ -1,12 +1,19 @@
 package pl.davidduke.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import pl.davidduke.entity.Person;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PersonRepository extends JpaRepository<Person, Integer> {
     Optional<Person> findByIpn(String ipn);
+
+    List<Person> findAllByIpnIn(Collection<String> ipns);
+
+    List<Person> findAllByIdGreaterThanOrderByIdAsc(int id, Limit limit);
 }
@@ -0,0 +1,73 @@
+package pl.davidduke.repository;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import pl.davidduke.exception.UnsupportedSortException;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The orders people can be listed in. Every sortable field is backed by an index on the field
+ * and {@code id} (see {@link pl.davidduke.entity.Person}), so a sort is limited to one
+ * case-sensitive field, optionally followed by {@code id} in the same direction, and always ends
+ * with that {@code id} tiebreak to keep pages stable and let the database walk the index either way.
+ */
+public final class PersonSort {
+    /**
+     * Sortable properties and their columns.
+     */
+    public static final Map<String, String> COLUMNS = columns();
+
+    private PersonSort() {
+    }
+
+    /**
+     * Checks the sort of the page request and completes it with the {@code id} tiebreak.
+     *
+     * @throws UnsupportedSortException when the sort cannot be served from an index
+     */
+    public static Pageable stable(Pageable pageable) {
+        Sort sort = stable(pageable.getSort());
+        return pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort)
+                : Pageable.unpaged(sort);
+    }
+
+    /**
+     * @throws UnsupportedSortException when the sort cannot be served from an index
+     */
+    public static Sort stable(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        if (orders.isEmpty()) {
+            return Sort.by("id");
+        }
+        Sort.Order first = orders.get(0);
+        boolean supported = COLUMNS.containsKey(first.getProperty())
+                && orders.stream().noneMatch(Sort.Order::isIgnoreCase)
+                && (orders.size() == 1 || orders.size() == 2 && isIdTiebreak(orders.get(1), first));
+        if (!supported) {
+            throw new UnsupportedSortException(sort.toString(), COLUMNS.keySet());
+        }
+        if (first.getProperty().equals("id") || orders.size() == 2) {
+            return sort;
+        }
+        return sort.and(Sort.by(first.getDirection(), "id"));
+    }
+
+    private static boolean isIdTiebreak(Sort.Order order, Sort.Order first) {
+        return order.getProperty().equals("id") && order.getDirection() == first.getDirection();
+    }
+
+    private static Map<String, String> columns() {
+        Map<String, String> columns = new LinkedHashMap<>();
+        columns.put("id", "id");
+        columns.put("firstName", "first_name");
+        columns.put("lastName", "last_name");
+        columns.put("birthday", "birthday");
+        return Collections.unmodifiableMap(columns);
+    }
+}
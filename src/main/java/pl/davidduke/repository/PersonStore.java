@@ -0,0 +1,61 @@
+package pl.davidduke.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import pl.davidduke.entity.Person;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The persistence operations {@link pl.davidduke.service.PersonService} relies on. The
+ * implementation is picked with the {@code app.person-store} property.
+ */
+public interface PersonStore {
+    Optional<Person> findById(int id);
+
+    /**
+     * Loads all people with the given ids in one round trip per database; missing ids are
+     * skipped and the order of the result is unspecified.
+     */
+    List<Person> findAllById(Collection<Integer> ids);
+
+    Page<Person> findAll(Pageable pageable);
+
+    /**
+     * Loads at most {@code limit} people with ids greater than {@code afterId}, ordered by id,
+     * so all people can be walked by key instead of by an ever growing offset.
+     */
+    List<Person> findAllAfterId(int afterId, int limit);
+
+    Optional<Person> findByIpn(String ipn);
+
+    /**
+     * Loads all people holding one of the given IPNs with a fixed number of queries however many
+     * IPNs are given; the order of the result is unspecified.
+     */
+    List<Person> findAllByIpn(Collection<String> ipns);
+
+    Person save(Person person);
+
+    /**
+     * Overwrites existing people. The default saves them one at a time, stores that can batch
+     * the writes override this. Stores taking part in Spring transactions write all of them in
+     * the caller's transaction, others document how far the writes are atomic.
+     */
+    default void updateAll(List<Person> people) {
+        people.forEach(this::save);
+    }
+
+    /**
+     * Inserts people that keep the ids they already have, for example when restoring a snapshot
+     * into an empty store. The default saves them one at a time, stores that can load in bulk
+     * override this.
+     */
+    default void insertAll(List<Person> people) {
+        people.forEach(this::save);
+    }
+
+    void deleteById(int id);
+}
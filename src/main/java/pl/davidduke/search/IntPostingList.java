@@ -0,0 +1,51 @@
+package pl.davidduke.search;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Arrays;
+
+/**
+ * Sorted, duplicate-free list of person ids kept in a plain {@code int[]}. Ids arrive mostly
+ * in increasing order, which makes {@link #add(int)} an append.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class IntPostingList {
+    int[] ids = new int[4];
+    int size;
+
+    void add(int id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return;
+        }
+        int insertionPoint = -position - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, insertionPoint, ids, insertionPoint + 1, size - insertionPoint);
+        ids[insertionPoint] = id;
+        size++;
+    }
+
+    void remove(int id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+
+    int get(int index) {
+        return ids[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,280 @@
+package pl.davidduke.search;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pl.davidduke.config.PeopleApiProperties;
+import pl.davidduke.entity.Person;
+import pl.davidduke.event.PersonChangeType;
+import pl.davidduke.event.PeopleReloadedEvent;
+import pl.davidduke.event.PersonChangedEvent;
+import pl.davidduke.repository.PersonStore;
+import pl.davidduke.util.IntIntHashMap;
+import pl.davidduke.util.IntObjectHashMap;
+import pl.davidduke.util.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram index over first and last names. Every word is padded with a space on both sides
+ * and cut into overlapping three-character grams; each gram maps to the sorted ids of the
+ * people whose name contains it. A query is cut into the grams inside its words, without the
+ * padding, so fragments from the middle of a name match as well as prefixes. People sharing
+ * enough of those grams are returned, which also tolerates small typos.
+ * <p>
+ * Built from the store once the application is ready and kept current from
+ * {@link PersonChangedEvent}s.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PersonSearchIndex {
+    static final int REBUILD_PAGE_SIZE = 1_000;
+    static final int MISSING = -1;
+    static final Comparator<SearchHit> RANKING = Comparator
+            .comparingDouble(SearchHit::coverage).reversed()
+            .thenComparing(Comparator.comparingDouble(SearchHit::similarity).reversed())
+            .thenComparingInt(SearchHit::id);
+
+    PersonStore personStore;
+    PeopleApiProperties properties;
+    ReadWriteLock lock = new ReentrantReadWriteLock();
+    LongIntHashMap gramSlots = new LongIntHashMap(4_096);
+    List<IntPostingList> postings = new ArrayList<>();
+    IntObjectHashMap<int[]> indexedGrams = new IntObjectHashMap<>(1_024);
+    IntIntHashMap changedDuringRebuild = new IntIntHashMap(64);
+    @NonFinal
+    boolean rebuilding;
+
+    public PersonSearchIndex(PersonStore personStore, PeopleApiProperties properties) {
+        this.personStore = personStore;
+        this.properties = properties;
+    }
+
+    /**
+     * Builds the index once the application is ready, unless people were already put into it
+     * while restoring a snapshot.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (size() == 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Reindexes all people, walking the store by id so every page is a range scan. Changes that
+     * arrive meanwhile win over the rows read by the rebuild, so a person deleted during the
+     * rebuild is not put back.
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            gramSlots.clear();
+            postings.clear();
+            indexedGrams.clear();
+            changedDuringRebuild.clear();
+            rebuilding = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            int lastId = 0;
+            List<Person> page;
+            do {
+                page = personStore.findAllAfterId(lastId, REBUILD_PAGE_SIZE);
+                lock.writeLock().lock();
+                try {
+                    for (Person person : page) {
+                        if (!changedDuringRebuild.containsKey(person.getId())) {
+                            putLocked(person.getId(), person.getFirstName(), person.getLastName());
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                if (!page.isEmpty()) {
+                    lastId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == REBUILD_PAGE_SIZE);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+                changedDuringRebuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Indexed {} people for name search in {} ms", size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Reindexes everybody after a bulk load, which does not say which people changed.
+     */
+    @EventListener
+    public void onPeopleReloaded(PeopleReloadedEvent event) {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangedEvent event) {
+        if (event.getType() == PersonChangeType.DELETED) {
+            remove(event.getId());
+        } else {
+            put(event.getId(), event.getPerson().getFirstName(), event.getPerson().getLastName());
+        }
+    }
+
+    public void put(int id, String firstName, String lastName) {
+        lock.writeLock().lock();
+        try {
+            markChanged(id);
+            putLocked(id, firstName, lastName);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            markChanged(id);
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return indexedGrams.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns at most {@code limit} people sharing at least the configured share of the
+     * query's trigrams, best matches first.
+     */
+    public List<SearchHit> search(String query, int limit) {
+        long[] queryGrams = queryTrigrams(query);
+        if (queryGrams.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        int minSharedGrams = (int) Math.ceil(properties.getSearchMinCoverage() * queryGrams.length);
+        List<SearchHit> hits = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            IntIntHashMap sharedGrams = new IntIntHashMap(256);
+            for (long gram : queryGrams) {
+                int slot = gramSlots.get(gram, MISSING);
+                if (slot == MISSING) {
+                    continue;
+                }
+                IntPostingList ids = postings.get(slot);
+                for (int i = 0; i < ids.size(); i++) {
+                    sharedGrams.increment(ids.get(i));
+                }
+            }
+            sharedGrams.forEach((id, shared) -> {
+                if (shared >= minSharedGrams) {
+                    hits.add(new SearchHit(id,
+                            (double) shared / queryGrams.length,
+                            2.0 * shared / (queryGrams.length + indexedGrams.get(id).length)));
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort(RANKING);
+        return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+    }
+
+    private void markChanged(int id) {
+        if (rebuilding) {
+            changedDuringRebuild.put(id, 1);
+        }
+    }
+
+    private void putLocked(int id, String firstName, String lastName) {
+        removeLocked(id);
+        long[] grams = trigrams(firstName + " " + lastName);
+        int[] slots = new int[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            int slot = gramSlots.get(grams[i], MISSING);
+            if (slot == MISSING) {
+                slot = postings.size();
+                postings.add(new IntPostingList());
+                gramSlots.put(grams[i], slot);
+            }
+            postings.get(slot).add(id);
+            slots[i] = slot;
+        }
+        indexedGrams.put(id, slots);
+    }
+
+    /**
+     * Emptied posting lists keep their slot and are reused when the gram shows up again.
+     */
+    private void removeLocked(int id) {
+        int[] slots = indexedGrams.remove(id);
+        if (slots == null) {
+            return;
+        }
+        for (int slot : slots) {
+            postings.get(slot).remove(id);
+        }
+    }
+
+    /**
+     * Distinct trigrams of the lower-cased words of {@code text}, each word padded with a space
+     * on both sides, packed into longs as three 16-bit chars.
+     */
+    static long[] trigrams(String text) {
+        return trigrams(text, false);
+    }
+
+    /**
+     * Distinct trigrams inside the lower-cased words of {@code query}. Words shorter than three
+     * characters have none, those are padded like indexed names.
+     */
+    static long[] queryTrigrams(String query) {
+        return trigrams(query, true);
+    }
+
+    private static long[] trigrams(String text, boolean innerOnly) {
+        String[] words = text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+");
+        long[] grams = new long[text.length() + 2 * words.length];
+        int count = 0;
+        for (String word : words) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String gramSource = innerOnly && word.length() >= 3 ? word : " " + word + " ";
+            for (int i = 0; i + 3 <= gramSource.length(); i++) {
+                grams[count++] = ((long) gramSource.charAt(i) << 32)
+                        | ((long) gramSource.charAt(i + 1) << 16)
+                        | gramSource.charAt(i + 2);
+            }
+        }
+        return Arrays.stream(grams, 0, count).distinct().toArray();
+    }
+}
@@ -0,0 +1,9 @@
+package pl.davidduke.search;
+
+/**
+ * @param coverage share of the query's trigrams found in the person's name
+ * @param similarity Dice coefficient between the query and the whole name, used to rank
+ *                   equally covering hits
+ */
+public record SearchHit(int id, double coverage, double similarity) {
+}
@@ -1,53 +1,143 @@
 package pl.davidduke.service;
 
+import jakarta.validation.Validator;
 import lombok.AccessLevel;
-import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import pl.davidduke.config.PeopleApiProperties;
+import pl.davidduke.dto.BulkPersonUpdateDto;
+import pl.davidduke.dto.BulkUpdateResultDto;
+import pl.davidduke.dto.BulkUpdateStatus;
+import pl.davidduke.dto.PersonChangesDto;
+import pl.davidduke.dto.PersonLookupResultDto;
 import pl.davidduke.dto.RequestPersonDto;
 import pl.davidduke.dto.PersonDto;
+import pl.davidduke.dto.SubApiError;
 import pl.davidduke.entity.Person;
+import pl.davidduke.event.PersonChangeType;
+import pl.davidduke.event.PersonChangedEvent;
 import pl.davidduke.exception.IpnAlreadyExistsException;
+import pl.davidduke.exception.MissingIdException;
 import pl.davidduke.exception.PersonNotFoundException;
-import pl.davidduke.repository.PersonRepository;
+import pl.davidduke.exception.TooManyIdsException;
+import pl.davidduke.exception.TooManyUpdatesException;
+import pl.davidduke.repository.InstrumentedPersonStore;
+import pl.davidduke.repository.PersonSort;
+import pl.davidduke.repository.PersonStore;
+import pl.davidduke.search.PersonSearchIndex;
+import pl.davidduke.search.SearchHit;
 import pl.davidduke.util.PersonMapper;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 @Transactional(readOnly = true)
-@RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class PersonService {
-    final PersonRepository personRepository;
+    final PersonStore personStore;
     final PersonMapper mapper;
+    final ApplicationEventPublisher eventPublisher;
+    final PeopleApiProperties properties;
+    final PersonSearchIndex searchIndex;
+    final Validator validator;
+
+    /**
+     * Wraps the selected store, so every store call of the service is recorded as a JFR
+     * {@code Repository} event.
+     */
+    public PersonService(
+            PersonStore personStore,
+            PersonMapper mapper,
+            ApplicationEventPublisher eventPublisher,
+            PeopleApiProperties properties,
+            PersonSearchIndex searchIndex,
+            Validator validator
+    ) {
+        this.personStore = new InstrumentedPersonStore(personStore);
+        this.mapper = mapper;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.searchIndex = searchIndex;
+        this.validator = validator;
+    }
 
     public Page<PersonDto> findAllPeople(Pageable pageable) {
-        return personRepository
-                .findAll(pageable)
+        return personStore
+                .findAll(PersonSort.stable(pageable))
                 .map(mapper::personToPersonDto);
     }
 
     public PersonDto findPersonById(int id) {
-        return personRepository
+        return personStore
                 .findById(id)
                 .map(mapper::personToPersonDto)
                 .orElseThrow(() -> new PersonNotFoundException(id));
     }
 
+    public List<PersonLookupResultDto> findPeopleByIds(List<Integer> ids) {
+        if (ids.size() > properties.getLookupMaxIds()) {
+            throw new TooManyIdsException(ids.size(), properties.getLookupMaxIds());
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            if (ids.get(i) == null) {
+                throw new MissingIdException(i);
+            }
+        }
+        Map<Integer, PersonDto> foundPeople = personStore
+                .findAllById(new LinkedHashSet<>(ids))
+                .stream()
+                .map(mapper::personToPersonDto)
+                .collect(Collectors.toMap(PersonDto::getId, Function.identity()));
+        return ids.stream()
+                .map(id -> PersonLookupResultDto.builder()
+                        .id(id)
+                        .found(foundPeople.containsKey(id))
+                        .person(foundPeople.get(id))
+                        .build())
+                .toList();
+    }
+
+    public List<PersonDto> searchPeople(String query, int limit) {
+        List<SearchHit> hits = searchIndex.search(query, Math.min(limit, properties.getSearchMaxResults()));
+        Map<Integer, PersonDto> foundPeople = personStore
+                .findAllById(hits.stream().map(SearchHit::id).toList())
+                .stream()
+                .map(mapper::personToPersonDto)
+                .collect(Collectors.toMap(PersonDto::getId, Function.identity()));
+        return hits.stream()
+                .map(hit -> foundPeople.get(hit.id()))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     @Transactional
     public PersonDto createPerson(RequestPersonDto createdPersonDto) {
         if (ipnExists(createdPersonDto.getIpn())) {
             throw new IpnAlreadyExistsException(createdPersonDto.getIpn());
         }
 
-        Person savedPerson = personRepository.save(mapper.requestPersonDtoToPerson(createdPersonDto));
-        return mapper.personToPersonDto(savedPerson);
+        Person savedPerson = personStore.save(mapper.requestPersonDtoToPerson(createdPersonDto));
+        PersonDto createdPerson = mapper.personToPersonDto(savedPerson);
+        eventPublisher.publishEvent(new PersonChangedEvent(PersonChangeType.CREATED, createdPerson.getId(), createdPerson));
+        return createdPerson;
     }
 
     private boolean ipnExists(String ipn) {
-        return personRepository.findByIpn(ipn).isPresent();
+        return personStore.findByIpn(ipn).isPresent();
     }
 
     @Transactional
@@ -59,8 +149,148 @@ public class PersonService {
         }
         Person personToBeSaved = mapper.requestPersonDtoToPerson(requestPersonDto);
         personToBeSaved.setId(id);
-        personRepository.save(personToBeSaved);
-        return mapper.personToPersonDto(personToBeSaved);
+        personStore.save(personToBeSaved);
+        PersonDto updatedPerson = mapper.personToPersonDto(personToBeSaved);
+        eventPublisher.publishEvent(new PersonChangedEvent(PersonChangeType.UPDATED, id, updatedPerson));
+        return updatedPerson;
+    }
+
+    /**
+     * Applies many partial updates in one transaction: the people are loaded with one query, the
+     * merged values are validated, IPN conflicts are checked with one more query and the accepted
+     * updates are written in batches. Items that fail, including items without an id, do not stop
+     * the others. When writing the accepted updates fails, no events are published and the
+     * exception reaches the caller. The JPA store writes in this transaction and the in-memory
+     * store puts already written people back, so neither keeps any update; the sharded store
+     * commits each shard on its own and keeps the updates of shards that committed, which then
+     * reach neither the change feed nor the snapshot until those people change again.
+     *
+     * @return one result per update, in the order of the updates
+     */
+    @Transactional
+    public List<BulkUpdateResultDto> updatePeople(List<BulkPersonUpdateDto> updates) {
+        if (updates.size() > properties.getBulkUpdateMaxItems()) {
+            throw new TooManyUpdatesException(updates.size(), properties.getBulkUpdateMaxItems());
+        }
+        List<Integer> ids = updates.stream()
+                .filter(update -> update != null && update.getId() != null)
+                .map(BulkPersonUpdateDto::getId)
+                .toList();
+        Map<Integer, Person> currentPeople = personStore.findAllById(ids).stream()
+                .collect(Collectors.toMap(Person::getId, Function.identity()));
+
+        BulkUpdateResultDto[] results = new BulkUpdateResultDto[updates.size()];
+        Map<Integer, RequestPersonDto> accepted = new LinkedHashMap<>();
+        Set<Integer> updatedIds = new HashSet<>();
+        for (int i = 0; i < updates.size(); i++) {
+            if (updates.get(i) == null || updates.get(i).getId() == null) {
+                results[i] = bulkUpdateResult(null, BulkUpdateStatus.INVALID, List.of(SubApiError.builder()
+                        .field("id")
+                        .message("The id of the person to update is required")
+                        .build()));
+                continue;
+            }
+            int id = updates.get(i).getId();
+            Person current = currentPeople.get(id);
+            if (current == null) {
+                results[i] = bulkUpdateResult(id, BulkUpdateStatus.NOT_FOUND, null);
+                continue;
+            }
+            if (!updatedIds.add(id)) {
+                results[i] = bulkUpdateResult(id, BulkUpdateStatus.INVALID, List.of(SubApiError.builder()
+                        .field("id")
+                        .rejectedValue(id)
+                        .message("The person is updated more than once in this request")
+                        .build()));
+                continue;
+            }
+            RequestPersonDto merged = applyChanges(current, updates.get(i).getChanges());
+            List<SubApiError> errors = validator.validate(merged).stream()
+                    .map(violation -> SubApiError.builder()
+                            .field(violation.getPropertyPath().toString())
+                            .rejectedValue(violation.getInvalidValue())
+                            .message(violation.getMessage())
+                            .build())
+                    .toList();
+            if (errors.isEmpty()) {
+                accepted.put(i, merged);
+            } else {
+                results[i] = bulkUpdateResult(id, BulkUpdateStatus.INVALID, errors);
+            }
+        }
+
+        Map<String, Integer> ipnOwners = findIpnOwners(accepted, updates, currentPeople);
+        List<Person> peopleToBeSaved = new ArrayList<>(accepted.size());
+        accepted.forEach((i, merged) -> {
+            int id = updates.get(i).getId();
+            Integer owner = ipnOwners.putIfAbsent(merged.getIpn(), id);
+            if (owner != null && owner != id) {
+                results[i] = bulkUpdateResult(id, BulkUpdateStatus.IPN_CONFLICT, List.of(SubApiError.builder()
+                        .field("ipn")
+                        .rejectedValue(merged.getIpn())
+                        .message("Another person already has this IPN")
+                        .build()));
+                return;
+            }
+            Person person = mapper.requestPersonDtoToPerson(merged);
+            person.setId(id);
+            peopleToBeSaved.add(person);
+            results[i] = BulkUpdateResultDto.builder()
+                    .id(id)
+                    .status(BulkUpdateStatus.UPDATED)
+                    .person(mapper.personToPersonDto(person))
+                    .build();
+        });
+
+        if (!peopleToBeSaved.isEmpty()) {
+            personStore.updateAll(peopleToBeSaved);
+        }
+        for (BulkUpdateResultDto result : results) {
+            if (result.getStatus() == BulkUpdateStatus.UPDATED) {
+                eventPublisher.publishEvent(
+                        new PersonChangedEvent(PersonChangeType.UPDATED, result.getId(), result.getPerson()));
+            }
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Looks up in one query who holds the IPNs the accepted updates change to.
+     */
+    private Map<String, Integer> findIpnOwners(
+            Map<Integer, RequestPersonDto> accepted,
+            List<BulkPersonUpdateDto> updates,
+            Map<Integer, Person> currentPeople
+    ) {
+        List<String> changedIpns = accepted.entrySet().stream()
+                .filter(entry -> !entry.getValue().getIpn()
+                        .equals(currentPeople.get(updates.get(entry.getKey()).getId()).getIpn()))
+                .map(entry -> entry.getValue().getIpn())
+                .distinct()
+                .toList();
+        Map<String, Integer> ipnOwners = new HashMap<>();
+        if (!changedIpns.isEmpty()) {
+            personStore.findAllByIpn(changedIpns).forEach(person -> ipnOwners.put(person.getIpn(), person.getId()));
+        }
+        return ipnOwners;
+    }
+
+    private static RequestPersonDto applyChanges(Person person, PersonChangesDto changes) {
+        PersonChangesDto presentChanges = changes == null ? PersonChangesDto.builder().build() : changes;
+        return RequestPersonDto.builder()
+                .firstName(Objects.requireNonNullElse(presentChanges.getFirstName(), person.getFirstName()))
+                .lastName(Objects.requireNonNullElse(presentChanges.getLastName(), person.getLastName()))
+                .birthday(Objects.requireNonNullElse(presentChanges.getBirthday(), person.getBirthday()))
+                .ipn(Objects.requireNonNullElse(presentChanges.getIpn(), person.getIpn()))
+                .build();
+    }
+
+    private static BulkUpdateResultDto bulkUpdateResult(Integer id, BulkUpdateStatus status, List<SubApiError> errors) {
+        return BulkUpdateResultDto.builder()
+                .id(id)
+                .status(status)
+                .errors(errors)
+                .build();
     }
 
     private boolean isIpnOwnedBySamePerson(RequestPersonDto requestPersonDto, PersonDto foundPersonById) {
@@ -69,6 +299,8 @@ public class PersonService {
 
     @Transactional
     public void deletePerson(int id) {
-        personRepository.deleteById(findPersonById(id).getId());
+        int foundId = findPersonById(id).getId();
+        personStore.deleteById(foundId);
+        eventPublisher.publishEvent(new PersonChangedEvent(PersonChangeType.DELETED, id, null));
     }
 }
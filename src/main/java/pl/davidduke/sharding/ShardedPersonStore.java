@@ -0,0 +1,451 @@
+package pl.davidduke.sharding;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.davidduke.entity.Person;
+import pl.davidduke.exception.IpnAlreadyExistsException;
+import pl.davidduke.repository.PersonSort;
+import pl.davidduke.repository.PersonStore;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Splits {@link Person} rows across several databases. A person lives on the shard picked by
+ * its id, while its IPN is claimed in a {@code person_ipn} table on the shard picked by the
+ * IPN, so both lookups touch a single shard. Ids come from a sequence on shard 0, which is moved
+ * past any id a caller supplies.
+ * <p>
+ * Writes spanning two shards are not atomic and the store does not take part in Spring
+ * transactions; {@link #updateAll(List)} only groups the rows of each shard in a local one.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ShardedPersonStore implements PersonStore, AutoCloseable {
+    static final String SELECT_PERSON = "SELECT id, first_name, last_name, birthday, ipn FROM person";
+    static final String UPDATE_PERSON =
+            "UPDATE person SET first_name = ?, last_name = ?, birthday = ?, ipn = ? WHERE id = ?";
+    static final String INSERT_PERSON =
+            "INSERT INTO person (id, first_name, last_name, birthday, ipn) VALUES (?, ?, ?, ?, ?)";
+    static final int UPDATE_BATCH_SIZE = 500;
+    static final Map<String, Comparator<Person>> SORT_COMPARATORS = Map.of(
+            "id", Comparator.comparingInt(Person::getId),
+            "firstName", Comparator.comparing(Person::getFirstName),
+            "lastName", Comparator.comparing(Person::getLastName),
+            "birthday", Comparator.comparing(Person::getBirthday));
+    static final RowMapper<Person> PERSON_ROW_MAPPER = (resultSet, rowNum) -> Person.builder()
+            .id(resultSet.getInt("id"))
+            .firstName(resultSet.getString("first_name"))
+            .lastName(resultSet.getString("last_name"))
+            .birthday(resultSet.getObject("birthday", LocalDate.class))
+            .ipn(resultSet.getString("ipn"))
+            .build();
+
+    List<DataSource> dataSources;
+    List<JdbcTemplate> shards;
+    List<TransactionTemplate> transactions;
+    ExecutorService scatterExecutor;
+    Object idSequenceLock = new Object();
+
+    public ShardedPersonStore(List<DataSource> dataSources, int scatterThreads) {
+        this.dataSources = List.copyOf(dataSources);
+        this.shards = this.dataSources.stream().map(JdbcTemplate::new).toList();
+        this.transactions = this.dataSources.stream()
+                .map(dataSource -> new TransactionTemplate(new DataSourceTransactionManager(dataSource)))
+                .toList();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("shard-scatter-");
+        threadFactory.setDaemon(true);
+        this.scatterExecutor = Executors.newFixedThreadPool(scatterThreads, threadFactory);
+
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("db/shard-schema.sql"));
+        this.dataSources.forEach(populator::execute);
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    @Override
+    public Optional<Person> findById(int id) {
+        return shardForId(id)
+                .query(SELECT_PERSON + " WHERE id = ?", PERSON_ROW_MAPPER, id)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public List<Person> findAllById(Collection<Integer> ids) {
+        Map<JdbcTemplate, List<Integer>> idsByShard = ids.stream()
+                .distinct()
+                .collect(Collectors.groupingBy(this::shardForId));
+        List<CompletableFuture<List<Person>>> results = idsByShard.entrySet().stream()
+                .map(shardIds -> CompletableFuture.supplyAsync(() -> shardIds.getKey().query(
+                        SELECT_PERSON + " WHERE id IN (" + String.join(", ", Collections.nCopies(shardIds.getValue().size(), "?")) + ")",
+                        PERSON_ROW_MAPPER,
+                        shardIds.getValue().toArray()), scatterExecutor))
+                .toList();
+        return results.stream()
+                .map(ShardedPersonStore::join)
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    @Override
+    public Optional<Person> findByIpn(String ipn) {
+        return shardForIpn(ipn)
+                .queryForList("SELECT person_id FROM person_ipn WHERE ipn = ?", Integer.class, ipn)
+                .stream()
+                .findFirst()
+                .flatMap(this::findById);
+    }
+
+    /**
+     * Two scatter rounds: the IPN claims on the shards picked by the IPNs, then the people on the
+     * shards picked by the claimed ids.
+     */
+    @Override
+    public List<Person> findAllByIpn(Collection<String> ipns) {
+        Map<JdbcTemplate, List<String>> ipnsByShard = ipns.stream()
+                .distinct()
+                .collect(Collectors.groupingBy(this::shardForIpn));
+        List<CompletableFuture<List<Integer>>> results = ipnsByShard.entrySet().stream()
+                .map(shardIpns -> CompletableFuture.supplyAsync(() -> shardIpns.getKey().queryForList(
+                        "SELECT person_id FROM person_ipn WHERE ipn IN (" + String.join(", ", Collections.nCopies(shardIpns.getValue().size(), "?")) + ")",
+                        Integer.class,
+                        shardIpns.getValue().toArray()), scatterExecutor))
+                .toList();
+        List<Integer> ids = results.stream()
+                .map(ShardedPersonStore::join)
+                .flatMap(List::stream)
+                .toList();
+        return ids.isEmpty() ? List.of() : findAllById(ids);
+    }
+
+    /**
+     * Queries every shard in parallel for its first {@code offset + size} rows in the requested
+     * order and merges the sorted runs, so each shard only ever sorts its own rows.
+     */
+    @Override
+    public Page<Person> findAll(Pageable pageable) {
+        Sort sort = PersonSort.stable(pageable.getSort());
+        String query = SELECT_PERSON + orderBy(sort)
+                + (pageable.isPaged() ? " LIMIT " + (pageable.getOffset() + pageable.getPageSize()) : "");
+
+        List<CompletableFuture<List<Person>>> runs = scatter(shard -> shard.query(query, PERSON_ROW_MAPPER));
+        List<CompletableFuture<Long>> counts = scatter(shard -> shard.queryForObject("SELECT COUNT(*) FROM person", Long.class));
+
+        List<Person> content = merge(runs.stream().map(ShardedPersonStore::join).toList(), comparator(sort), pageable);
+        long total = counts.stream().mapToLong(ShardedPersonStore::join).sum();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Reads the next {@code limit} ids from every shard and keeps the lowest ones.
+     */
+    @Override
+    public List<Person> findAllAfterId(int afterId, int limit) {
+        List<CompletableFuture<List<Person>>> runs = scatter(shard -> shard.query(
+                SELECT_PERSON + " WHERE id > ? ORDER BY id ASC LIMIT ?", PERSON_ROW_MAPPER, afterId, limit));
+        return merge(runs.stream().map(ShardedPersonStore::join).toList(),
+                SORT_COMPARATORS.get("id"), PageRequest.of(0, limit));
+    }
+
+    @Override
+    public Person save(Person person) {
+        if (person.getId() == 0) {
+            return insert(person);
+        }
+        return findById(person.getId())
+                .map(existing -> update(person, existing.getIpn()))
+                .orElseGet(() -> insert(person));
+    }
+
+    /**
+     * Writes the people of every shard as JDBC batches in one local transaction of that shard,
+     * the shards in parallel. Changed IPNs are claimed before the writes; once a shard committed,
+     * the previous IPNs of its people are released, and when it failed, the new ones. Like the
+     * other writes of this store the update is not atomic across shards: when one shard fails,
+     * the others may already be committed.
+     */
+    @Override
+    public void updateAll(List<Person> people) {
+        Map<Integer, String> previousIpns = findAllById(people.stream().map(Person::getId).toList()).stream()
+                .collect(Collectors.toMap(Person::getId, Person::getIpn));
+        List<Person> changedIpns = people.stream()
+                .filter(person -> !person.getIpn().equals(previousIpns.get(person.getId())))
+                .toList();
+        claimIpns(changedIpns);
+
+        Map<Integer, List<Person>> peopleByShard = people.stream()
+                .collect(Collectors.groupingBy(person -> shardIndexForId(person.getId())));
+        Map<Integer, CompletableFuture<Void>> writes = peopleByShard.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, shardPeople -> CompletableFuture.runAsync(
+                        () -> transactions.get(shardPeople.getKey()).executeWithoutResult(status ->
+                                shards.get(shardPeople.getKey()).batchUpdate(UPDATE_PERSON, shardPeople.getValue(),
+                                        UPDATE_BATCH_SIZE, (statement, person) -> {
+                                            statement.setString(1, person.getFirstName());
+                                            statement.setString(2, person.getLastName());
+                                            statement.setObject(3, person.getBirthday());
+                                            statement.setString(4, person.getIpn());
+                                            statement.setInt(5, person.getId());
+                                        })), scatterExecutor)));
+
+        RuntimeException failure = null;
+        for (Person person : changedIpns) {
+            try {
+                join(writes.get(shardIndexForId(person.getId())));
+                if (previousIpns.containsKey(person.getId())) {
+                    releaseIpn(previousIpns.get(person.getId()), person.getId());
+                }
+            } catch (RuntimeException e) {
+                releaseIpn(person.getIpn(), person.getId());
+                failure = failure == null ? e : failure;
+            }
+        }
+        for (CompletableFuture<Void> write : writes.values()) {
+            try {
+                join(write);
+            } catch (RuntimeException e) {
+                failure = failure == null ? e : failure;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public void deleteById(int id) {
+        findById(id).ifPresent(person -> {
+            shardForId(id).update("DELETE FROM person WHERE id = ?", id);
+            releaseIpn(person.getIpn(), id);
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        scatterExecutor.shutdownNow();
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private Person insert(Person person) {
+        if (person.getId() != 0) {
+            insertRow(person, person.getId());
+            advanceIdSequence(person.getId());
+            return person;
+        }
+        while (true) {
+            int id = shards.get(0).queryForObject("SELECT NEXT VALUE FOR person_id_seq", Integer.class);
+            try {
+                insertRow(person, id);
+                return person;
+            } catch (DuplicateKeyException e) {
+                // taken by a caller-supplied id before the sequence was moved past it
+            }
+        }
+    }
+
+    private void insertRow(Person person, int id) {
+        claimIpn(person.getIpn(), id);
+        try {
+            shardForId(id).update(INSERT_PERSON,
+                    id, person.getFirstName(), person.getLastName(), person.getBirthday(), person.getIpn());
+        } catch (RuntimeException e) {
+            releaseIpn(person.getIpn(), id);
+            throw e;
+        }
+        person.setId(id);
+    }
+
+    private void advanceIdSequence(int id) {
+        synchronized (idSequenceLock) {
+            long nextId = shards.get(0).queryForObject(
+                    "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'PERSON_ID_SEQ'",
+                    Long.class);
+            if (nextId <= id) {
+                shards.get(0).execute("ALTER SEQUENCE person_id_seq RESTART WITH " + (id + 1L));
+            }
+        }
+    }
+
+    private Person update(Person person, String previousIpn) {
+        boolean ipnChanged = !person.getIpn().equals(previousIpn);
+        if (ipnChanged) {
+            claimIpn(person.getIpn(), person.getId());
+        }
+        try {
+            shardForId(person.getId()).update(UPDATE_PERSON,
+                    person.getFirstName(), person.getLastName(), person.getBirthday(), person.getIpn(), person.getId());
+        } catch (RuntimeException e) {
+            if (ipnChanged) {
+                releaseIpn(person.getIpn(), person.getId());
+            }
+            throw e;
+        }
+        if (ipnChanged) {
+            releaseIpn(previousIpn, person.getId());
+        }
+        return person;
+    }
+
+    private void claimIpn(String ipn, int id) {
+        try {
+            shardForIpn(ipn).update("INSERT INTO person_ipn (ipn, person_id) VALUES (?, ?)", ipn, id);
+        } catch (DuplicateKeyException e) {
+            throw new IpnAlreadyExistsException(ipn);
+        }
+    }
+
+    /**
+     * Claims the IPNs of all given people, or none of them.
+     */
+    private void claimIpns(List<Person> people) {
+        for (int i = 0; i < people.size(); i++) {
+            try {
+                claimIpn(people.get(i).getIpn(), people.get(i).getId());
+            } catch (RuntimeException e) {
+                people.subList(0, i).forEach(claimed -> releaseIpn(claimed.getIpn(), claimed.getId()));
+                throw e;
+            }
+        }
+    }
+
+    private void releaseIpn(String ipn, int id) {
+        shardForIpn(ipn).update("DELETE FROM person_ipn WHERE ipn = ? AND person_id = ?", ipn, id);
+    }
+
+    private JdbcTemplate shardForId(int id) {
+        return shards.get(shardIndexForId(id));
+    }
+
+    private int shardIndexForId(int id) {
+        return Math.floorMod(mix(id), shards.size());
+    }
+
+    private JdbcTemplate shardForIpn(String ipn) {
+        return shards.get(Math.floorMod(mix(ipn.hashCode()), shards.size()));
+    }
+
+    private <T> List<CompletableFuture<T>> scatter(Function<JdbcTemplate, T> query) {
+        return shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> query.apply(shard), scatterExecutor))
+                .toList();
+    }
+
+    static List<Person> merge(List<List<Person>> sortedRuns, Comparator<Person> comparator, Pageable pageable) {
+        PriorityQueue<RunCursor> heads =
+                new PriorityQueue<>((first, second) -> comparator.compare(first.current(), second.current()));
+        for (List<Person> run : sortedRuns) {
+            if (!run.isEmpty()) {
+                heads.add(new RunCursor(run));
+            }
+        }
+
+        long toSkip = pageable.isPaged() ? pageable.getOffset() : 0;
+        int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        List<Person> content = new ArrayList<>(Math.min(limit, 1024));
+        while (!heads.isEmpty() && content.size() < limit) {
+            RunCursor head = heads.poll();
+            if (toSkip > 0) {
+                toSkip--;
+            } else {
+                content.add(head.current());
+            }
+            if (head.advance()) {
+                heads.add(head);
+            }
+        }
+        return content;
+    }
+
+    static Comparator<Person> comparator(Sort sort) {
+        Comparator<Person> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Person> fieldComparator = SORT_COMPARATORS.get(order.getProperty());
+            Comparator<Person> orderComparator = order.isAscending() ? fieldComparator : fieldComparator.reversed();
+            comparator = comparator == null ? orderComparator : comparator.thenComparing(orderComparator);
+        }
+        return comparator;
+    }
+
+    private static String orderBy(Sort sort) {
+        List<String> columns = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            columns.add(PersonSort.COLUMNS.get(order.getProperty()) + (order.isAscending() ? " ASC" : " DESC"));
+        }
+        return " ORDER BY " + String.join(", ", columns);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Murmur3 finalizer, spreads neighbouring ids and poorly distributed hash codes over the shards.
+     */
+    private static int mix(int value) {
+        int hash = value;
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    private static final class RunCursor {
+        final List<Person> run;
+        int position;
+
+        RunCursor(List<Person> run) {
+            this.run = run;
+        }
+
+        Person current() {
+            return run.get(position);
+        }
+
+        boolean advance() {
+            return ++position < run.size();
+        }
+    }
+}
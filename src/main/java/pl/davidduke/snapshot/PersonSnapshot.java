@@ -0,0 +1,271 @@
+package pl.davidduke.snapshot;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import pl.davidduke.entity.Person;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Columnar copy of the person table.
+ * <p>
+ * The file starts with a header ({@code PSNP} magic, format version, row count, dictionary size),
+ * followed by the dictionary of distinct first and last names, each stored as an unsigned short
+ * length and its UTF-8 bytes. After it come the columns, every one holding a value per row: ids,
+ * first and last names as dictionary indexes, birthdays as epoch days, and IPNs as numbers.
+ */
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PersonSnapshot {
+    static final int MAGIC = 0x50534E50;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 4 * Integer.BYTES;
+    static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    @Getter
+    int size;
+    String[] dictionary;
+    int[] ids;
+    int[] firstNames;
+    int[] lastNames;
+    int[] birthdays;
+    long[] ipns;
+
+    PersonSnapshot(String[] dictionary, int[] ids, int[] firstNames, int[] lastNames, int[] birthdays, long[] ipns) {
+        this.size = ids.length;
+        this.dictionary = dictionary;
+        this.ids = ids;
+        this.firstNames = firstNames;
+        this.lastNames = lastNames;
+        this.birthdays = birthdays;
+        this.ipns = ipns;
+    }
+
+    public int id(int row) {
+        return ids[row];
+    }
+
+    public String firstName(int row) {
+        return dictionary[firstNames[row]];
+    }
+
+    public String lastName(int row) {
+        return dictionary[lastNames[row]];
+    }
+
+    public LocalDate birthday(int row) {
+        return LocalDate.ofEpochDay(birthdays[row]);
+    }
+
+    /**
+     * IPNs are validated to ten digits, so the leading zeros dropped by the numeric column are padded back.
+     */
+    public String ipn(int row) {
+        char[] digits = new char[10];
+        long value = ipns[row];
+        for (int i = digits.length - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return new String(digits);
+    }
+
+    public Person person(int row) {
+        return Person.builder()
+                .id(id(row))
+                .firstName(firstName(row))
+                .lastName(lastName(row))
+                .birthday(birthday(row))
+                .ipn(ipn(row))
+                .build();
+    }
+
+    public int maxId() {
+        int max = 0;
+        for (int id : ids) {
+            max = Math.max(max, id);
+        }
+        return max;
+    }
+
+    int dictionarySize() {
+        return dictionary.length;
+    }
+
+    /**
+     * Maps the file into memory and copies its columns out in bulk.
+     */
+    public static PersonSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+                throw new IOException(file + " is not a person snapshot");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported person snapshot version " + version + " in " + file);
+            }
+            int size = buffer.getInt();
+            String[] dictionary = new String[buffer.getInt()];
+            for (int i = 0; i < dictionary.length; i++) {
+                byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(bytes);
+                dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            int[] ids = readInts(buffer, size);
+            int[] firstNames = readInts(buffer, size);
+            int[] lastNames = readInts(buffer, size);
+            int[] birthdays = readInts(buffer, size);
+            long[] ipns = new long[size];
+            buffer.asLongBuffer().get(ipns);
+            return new PersonSnapshot(dictionary, ids, firstNames, lastNames, birthdays, ipns);
+        }
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int size) {
+        int[] column = new int[size];
+        buffer.asIntBuffer().get(column);
+        buffer.position(buffer.position() + size * Integer.BYTES);
+        return column;
+    }
+
+    /**
+     * Writes the snapshot next to the target file first and moves it into place, so a crash
+     * while writing never leaves a truncated snapshot behind.
+     */
+    public void write(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(dictionary.length);
+            for (String value : dictionary) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                ensureRemaining(channel, buffer, Short.BYTES + bytes.length);
+                buffer.putShort((short) bytes.length).put(bytes);
+            }
+            for (int[] column : new int[][]{ids, firstNames, lastNames, birthdays}) {
+                for (int value : column) {
+                    ensureRemaining(channel, buffer, Integer.BYTES);
+                    buffer.putInt(value);
+                }
+            }
+            for (long value : ipns) {
+                ensureRemaining(channel, buffer, Long.BYTES);
+                buffer.putLong(value);
+            }
+            flush(channel, buffer);
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void ensureRemaining(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * IPN as stored in the numeric column, or {@code -1} unless it consists of ten digits.
+     */
+    static long ipnValue(String ipn) {
+        if (ipn == null || ipn.length() != 10) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < ipn.length(); i++) {
+            char digit = ipn.charAt(i);
+            if (digit < '0' || digit > '9') {
+                return -1;
+            }
+            value = value * 10 + (digit - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Collects rows into growing columns, assigning dictionary indexes to names as they come.
+     * Rows with an IPN the numeric column cannot hold are left out and logged, so one bad row
+     * never keeps the whole snapshot from being written.
+     */
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Builder {
+        final Map<String, Integer> dictionaryIndexes = new HashMap<>();
+        int size;
+        @Getter
+        int skipped;
+        int[] ids = new int[1_024];
+        int[] firstNames = new int[1_024];
+        int[] lastNames = new int[1_024];
+        int[] birthdays = new int[1_024];
+        long[] ipns = new long[1_024];
+
+        public Builder add(int id, String firstName, String lastName, LocalDate birthday, String ipn) {
+            long ipnValue = ipnValue(ipn);
+            if (ipnValue < 0) {
+                log.warn("Left person {} out of the snapshot, IPN {} does not consist of ten digits", id, ipn);
+                skipped++;
+                return this;
+            }
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                firstNames = Arrays.copyOf(firstNames, capacity);
+                lastNames = Arrays.copyOf(lastNames, capacity);
+                birthdays = Arrays.copyOf(birthdays, capacity);
+                ipns = Arrays.copyOf(ipns, capacity);
+            }
+            ids[size] = id;
+            firstNames[size] = dictionaryIndex(firstName);
+            lastNames[size] = dictionaryIndex(lastName);
+            birthdays[size] = Math.toIntExact(birthday.toEpochDay());
+            ipns[size] = ipnValue;
+            size++;
+            return this;
+        }
+
+        private int dictionaryIndex(String name) {
+            return dictionaryIndexes.computeIfAbsent(name, key -> dictionaryIndexes.size());
+        }
+
+        public PersonSnapshot build() {
+            String[] dictionary = new String[dictionaryIndexes.size()];
+            dictionaryIndexes.forEach((name, index) -> dictionary[index] = name);
+            return new PersonSnapshot(
+                    dictionary,
+                    Arrays.copyOf(ids, size),
+                    Arrays.copyOf(firstNames, size),
+                    Arrays.copyOf(lastNames, size),
+                    Arrays.copyOf(birthdays, size),
+                    Arrays.copyOf(ipns, size)
+            );
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package pl.davidduke.snapshot;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.davidduke.config.SnapshotProperties;
+import pl.davidduke.entity.Person;
+import pl.davidduke.event.PeopleReloadedEvent;
+import pl.davidduke.event.PersonChangedEvent;
+import pl.davidduke.repository.JpaPersonStore;
+import pl.davidduke.repository.PersonStore;
+import pl.davidduke.search.PersonSearchIndex;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * Keeps a {@link PersonSnapshot} of the people in the active {@link PersonStore} on disk. At
+ * startup an existing snapshot is restored into the empty store and the name search index;
+ * afterwards the snapshot is rewritten in the background whenever people changed, and once more
+ * on shutdown. The person table of the JPA store is read and filled over plain JDBC in parallel
+ * chunks, other stores are walked by id and filled through {@link PersonStore#insertAll(List)}.
+ */
+@Slf4j
+@Component
+@Order(0)
+@ConditionalOnProperty(name = "app.snapshot.enabled", havingValue = "true")
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PersonSnapshotter implements ApplicationRunner {
+    static final String SELECT_SQL = "SELECT id, first_name, last_name, birthday, ipn FROM person ORDER BY id";
+    static final String INSERT_SQL = "INSERT INTO person (id, first_name, last_name, birthday, ipn) VALUES (?, ?, ?, ?, ?)";
+
+    PersonStore personStore;
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate transactionTemplate;
+    PersonSearchIndex searchIndex;
+    SnapshotProperties properties;
+    AtomicBoolean dirty = new AtomicBoolean(true);
+
+    public PersonSnapshotter(
+            PersonStore personStore,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            PersonSearchIndex searchIndex,
+            SnapshotProperties properties
+    ) {
+        this.personStore = personStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.searchIndex = searchIndex;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!Files.exists(properties.getFile())) {
+            log.info("No person snapshot at {}, starting with the current people", properties.getFile());
+            return;
+        }
+        if (!personStore.findAllAfterId(0, 1).isEmpty()) {
+            log.warn("Person store is not empty, skipped restoring the snapshot at {}", properties.getFile());
+            return;
+        }
+        long start = System.nanoTime();
+        PersonSnapshot snapshot = PersonSnapshot.read(properties.getFile());
+        if (personStore instanceof JpaPersonStore) {
+            restoreTable(snapshot);
+        } else {
+            personStore.insertAll(IntStream.range(0, snapshot.getSize()).mapToObj(snapshot::person).toList());
+        }
+        IntStream.range(0, snapshot.getSize())
+                .forEach(row -> searchIndex.put(snapshot.id(row), snapshot.firstName(row), snapshot.lastName(row)));
+        dirty.set(false);
+        log.info("Restored {} people from the snapshot at {} in {} ms",
+                snapshot.getSize(), properties.getFile(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Inserts the rows with their original ids and moves the identity past them, so people
+     * created afterwards do not collide with restored ones.
+     */
+    private void restoreTable(PersonSnapshot snapshot) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("snapshot-restore-");
+        threadFactory.setDaemon(true);
+        ExecutorService workers = Executors.newFixedThreadPool(properties.getThreads(), threadFactory);
+        try {
+            List<CompletableFuture<Void>> chunks = new ArrayList<>();
+            for (int from = 0; from < snapshot.getSize(); from += properties.getChunkSize()) {
+                int to = Math.min(snapshot.getSize(), from + properties.getChunkSize());
+                int chunkStart = from;
+                chunks.add(CompletableFuture.runAsync(() -> insertRows(snapshot, chunkStart, to), workers));
+            }
+            CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            workers.shutdownNow();
+        }
+        jdbcTemplate.execute("ALTER TABLE person ALTER COLUMN id RESTART WITH " + (snapshot.maxId() + 1));
+    }
+
+    private void insertRows(PersonSnapshot snapshot, int from, int to) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int batchStart = from; batchStart < to; batchStart += properties.getBatchSize()) {
+                int offset = batchStart;
+                int batchSize = Math.min(properties.getBatchSize(), to - batchStart);
+                jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        int row = offset + i;
+                        statement.setInt(1, snapshot.id(row));
+                        statement.setString(2, snapshot.firstName(row));
+                        statement.setString(3, snapshot.lastName(row));
+                        statement.setObject(4, snapshot.birthday(row));
+                        statement.setString(5, snapshot.ipn(row));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batchSize;
+                    }
+                });
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangedEvent event) {
+        dirty.set(true);
+    }
+
+    @EventListener
+    public void onPeopleReloaded(PeopleReloadedEvent event) {
+        dirty.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${app.snapshot.interval:PT5M}", initialDelayString = "${app.snapshot.interval:PT5M}")
+    public void writeInBackground() {
+        writeIfDirty();
+    }
+
+    /**
+     * Runs before the context destroys its beans, while the schema is still there.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void writeOnShutdown() {
+        writeIfDirty();
+    }
+
+    private synchronized void writeIfDirty() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            PersonSnapshot.Builder builder = new PersonSnapshot.Builder();
+            if (personStore instanceof JpaPersonStore) {
+                jdbcTemplate.query(SELECT_SQL, (RowCallbackHandler) resultSet -> builder.add(
+                        resultSet.getInt(1),
+                        resultSet.getString(2),
+                        resultSet.getString(3),
+                        resultSet.getObject(4, LocalDate.class),
+                        resultSet.getString(5)
+                ));
+            } else {
+                addAllPeople(builder);
+            }
+            PersonSnapshot snapshot = builder.build();
+            snapshot.write(properties.getFile());
+            log.info("Wrote snapshot of {} people to {} in {} ms, left out {} with a malformed IPN",
+                    snapshot.getSize(), properties.getFile(), (System.nanoTime() - start) / 1_000_000,
+                    builder.getSkipped());
+        } catch (IOException | RuntimeException e) {
+            dirty.set(true);
+            log.error("Failed to write the person snapshot to {}", properties.getFile(), e);
+        }
+    }
+
+    private void addAllPeople(PersonSnapshot.Builder builder) {
+        int lastId = 0;
+        List<Person> page;
+        do {
+            page = personStore.findAllAfterId(lastId, properties.getBatchSize());
+            for (Person person : page) {
+                builder.add(person.getId(), person.getFirstName(), person.getLastName(),
+                        person.getBirthday(), person.getIpn());
+                lastId = person.getId();
+            }
+        } while (page.size() == properties.getBatchSize());
+    }
+}
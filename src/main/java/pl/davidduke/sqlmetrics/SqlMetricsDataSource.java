@@ -0,0 +1,101 @@
+package pl.davidduke.sqlmetrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Counts and times the SQL statements of the current unit of work where they reach the driver,
+ * so statements sent through {@code JdbcTemplate} are reported next to those Hibernate issues.
+ * A statement is counted when it is prepared, or when plain SQL is executed or added to a batch.
+ * Executions slower than the threshold of the unit of work are logged in their prepared form,
+ * which is the bind-parameter shape without the values.
+ */
+@Slf4j
+public class SqlMetricsDataSource extends DelegatingDataSource implements Closeable {
+
+    public SqlMetricsDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return metered(Connection.class, super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return metered(Connection.class, super.getConnection(username, password));
+    }
+
+    /**
+     * Closes the target pool, which the context would otherwise not see behind this wrapper.
+     */
+    @Override
+    public void close() throws IOException {
+        if (obtainTargetDataSource() instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static <T> T metered(Class<T> type, T target) {
+        return type.cast(Proxy.newProxyInstance(SqlMetricsDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> invoke(target, method, args);
+                }));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        SqlStatementMetrics metrics = SqlStatementMetrics.current();
+        String name = method.getName();
+        if (metrics != null && args != null && args.length > 0 && args[0] instanceof String sql
+                && (name.startsWith("prepare") || name.startsWith("execute") || name.equals("addBatch"))) {
+            metrics.recordStatement(sql);
+        }
+        if (metrics == null || !name.startsWith("execute")) {
+            Object result = call(target, method, args);
+            Class<?> returnType = method.getReturnType();
+            return result != null && Statement.class.isAssignableFrom(returnType)
+                    ? metered(returnType.asSubclass(Statement.class), (Statement) result)
+                    : result;
+        }
+        long startNanos = System.nanoTime();
+        try {
+            return call(target, method, args);
+        } finally {
+            executionFinished(metrics, System.nanoTime() - startNanos);
+        }
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void executionFinished(SqlStatementMetrics metrics, long elapsedNanos) {
+        metrics.recordExecution(elapsedNanos);
+        if (metrics.isSlow(elapsedNanos)) {
+            String sql = metrics.getLastStatement();
+            log.warn("Slow SQL statement took {} ms with {} bind parameters: {}",
+                    elapsedNanos / 1_000_000, bindParameterCount(sql), sql);
+        }
+    }
+
+    private static long bindParameterCount(String sql) {
+        return sql == null ? 0 : sql.chars().filter(c -> c == '?').count();
+    }
+}
@@ -0,0 +1,81 @@
+package pl.davidduke.sqlmetrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Duration;
+
+/**
+ * Counts the SQL statements of each request and reports them in the {@code X-SQL-Statement-Count}
+ * and {@code X-SQL-Time-Ms} response headers. The headers are set right before the body is
+ * written, because later the response is already committed.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class SqlMetricsFilter extends OncePerRequestFilter {
+    public static final String STATEMENT_COUNT_HEADER = "X-SQL-Statement-Count";
+    public static final String STATEMENT_TIME_HEADER = "X-SQL-Time-Ms";
+
+    Duration slowStatementThreshold;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementMetrics metrics = SqlStatementMetrics.begin(slowStatementThreshold);
+        MetricsHeaderResponse metricsResponse = new MetricsHeaderResponse(response, metrics);
+        try {
+            filterChain.doFilter(request, metricsResponse);
+        } finally {
+            metricsResponse.writeMetricHeaders();
+            log.debug("{} {} executed {} SQL statements in {} ms", request.getMethod(), request.getRequestURI(),
+                    metrics.getStatementCount(), metrics.getExecutionTime().toMillis());
+            SqlStatementMetrics.end();
+        }
+    }
+
+    private static class MetricsHeaderResponse extends HttpServletResponseWrapper {
+        final SqlStatementMetrics metrics;
+
+        MetricsHeaderResponse(HttpServletResponse response, SqlStatementMetrics metrics) {
+            super(response);
+            this.metrics = metrics;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeMetricHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeMetricHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeMetricHeaders();
+            super.flushBuffer();
+        }
+
+        void writeMetricHeaders() {
+            if (!isCommitted()) {
+                setHeader(STATEMENT_COUNT_HEADER, Integer.toString(metrics.getStatementCount()));
+                setHeader(STATEMENT_TIME_HEADER, Long.toString(metrics.getExecutionTime().toMillis()));
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package pl.davidduke.sqlmetrics;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Duration;
+
+/**
+ * Per-thread tally of the SQL statements {@link SqlMetricsDataSource} sees prepared and executed,
+ * whether they come from Hibernate or {@code JdbcTemplate}. A unit of work,
+ * usually an HTTP request, calls {@link #begin(Duration)} and reads the tally from
+ * {@link #current()}. Statements run outside a unit of work, on scheduler or pool threads,
+ * are neither counted nor timed, so nothing accumulates on threads that never call {@link #end()}.
+ */
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SqlStatementMetrics {
+    static final ThreadLocal<SqlStatementMetrics> CURRENT = new ThreadLocal<>();
+
+    final Duration slowStatementThreshold;
+    int statementCount;
+    long executionNanos;
+    String lastStatement;
+
+    SqlStatementMetrics(Duration slowStatementThreshold) {
+        this.slowStatementThreshold = slowStatementThreshold;
+    }
+
+    /**
+     * @param slowStatementThreshold executions at least this long are logged
+     */
+    public static SqlStatementMetrics begin(Duration slowStatementThreshold) {
+        SqlStatementMetrics metrics = new SqlStatementMetrics(slowStatementThreshold);
+        CURRENT.set(metrics);
+        return metrics;
+    }
+
+    /**
+     * @return the tally of the unit of work running on this thread, or {@code null} outside one
+     */
+    public static SqlStatementMetrics current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    void recordStatement(String sql) {
+        statementCount++;
+        lastStatement = sql;
+    }
+
+    void recordExecution(long nanos) {
+        executionNanos += nanos;
+    }
+
+    boolean isSlow(long nanos) {
+        return nanos >= slowStatementThreshold.toNanos();
+    }
+
+    public Duration getExecutionTime() {
+        return Duration.ofNanos(executionNanos);
+    }
+}
@@ -10,7 +10,11 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import pl.davidduke.dto.ApiErrorDto;
 import pl.davidduke.dto.SubApiError;
 import pl.davidduke.exception.IpnAlreadyExistsException;
+import pl.davidduke.exception.MissingIdException;
 import pl.davidduke.exception.PersonNotFoundException;
+import pl.davidduke.exception.TooManyIdsException;
+import pl.davidduke.exception.TooManyUpdatesException;
+import pl.davidduke.exception.UnsupportedSortException;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -76,6 +80,66 @@ public class GlobalExceptionHandler {
                 );
     }
 
+    @ExceptionHandler(TooManyIdsException.class)
+    public ResponseEntity<ApiErrorDto> handleTooManyIdsException(TooManyIdsException e) {
+        logError(e.getMessage(), HttpStatus.BAD_REQUEST);
+        return ResponseEntity
+                .badRequest()
+                .body(
+                        ApiErrorDto
+                                .builder()
+                                .timestamp(LocalDateTime.now())
+                                .status(HttpStatus.BAD_REQUEST)
+                                .message(e.getMessage())
+                                .build()
+                );
+    }
+
+    @ExceptionHandler(MissingIdException.class)
+    public ResponseEntity<ApiErrorDto> handleMissingIdException(MissingIdException e) {
+        logError(e.getMessage(), HttpStatus.BAD_REQUEST);
+        return ResponseEntity
+                .badRequest()
+                .body(
+                        ApiErrorDto
+                                .builder()
+                                .timestamp(LocalDateTime.now())
+                                .status(HttpStatus.BAD_REQUEST)
+                                .message(e.getMessage())
+                                .build()
+                );
+    }
+
+    @ExceptionHandler(TooManyUpdatesException.class)
+    public ResponseEntity<ApiErrorDto> handleTooManyUpdatesException(TooManyUpdatesException e) {
+        logError(e.getMessage(), HttpStatus.BAD_REQUEST);
+        return ResponseEntity
+                .badRequest()
+                .body(
+                        ApiErrorDto
+                                .builder()
+                                .timestamp(LocalDateTime.now())
+                                .status(HttpStatus.BAD_REQUEST)
+                                .message(e.getMessage())
+                                .build()
+                );
+    }
+
+    @ExceptionHandler(UnsupportedSortException.class)
+    public ResponseEntity<ApiErrorDto> handleUnsupportedSortException(UnsupportedSortException e) {
+        logError(e.getMessage(), HttpStatus.BAD_REQUEST);
+        return ResponseEntity
+                .badRequest()
+                .body(
+                        ApiErrorDto
+                                .builder()
+                                .timestamp(LocalDateTime.now())
+                                .status(HttpStatus.BAD_REQUEST)
+                                .message(e.getMessage())
+                                .build()
+                );
+    }
+
     private static void logError(String message, HttpStatus status) {
         log.error("{} Status: {}", message, status);
     }
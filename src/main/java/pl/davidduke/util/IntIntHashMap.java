@@ -0,0 +1,159 @@
+package pl.davidduke.util;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from {@code int} to {@code int} with linear probing, avoiding the
+ * boxing of {@code Map<Integer, Integer>}. Key {@code 0} is reserved as the empty marker, which
+ * suits generated ids. Not thread-safe.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class IntIntHashMap {
+    static final int EMPTY = 0;
+    static final float LOAD_FACTOR = 0.6f;
+
+    int[] keys;
+    int[] values;
+    int mask;
+    int size;
+
+    public IntIntHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int get(int key, int missingValue) {
+        int slot = slotOf(key);
+        return slot < 0 ? missingValue : values[slot];
+    }
+
+    public boolean containsKey(int key) {
+        return slotOf(key) >= 0;
+    }
+
+    public void put(int key, int value) {
+        checkKey(key);
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > keys.length * LOAD_FACTOR) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    /**
+     * Adds one to the value of {@code key}, starting from zero, and returns the new value.
+     */
+    public int increment(int key) {
+        int slot = slotOf(key);
+        if (slot >= 0) {
+            return ++values[slot];
+        }
+        put(key, 1);
+        return 1;
+    }
+
+    public int remove(int key, int missingValue) {
+        int slot = slotOf(key);
+        if (slot < 0) {
+            return missingValue;
+        }
+        int removed = values[slot];
+        // shift following entries of the probe run back so lookups never stop at the hole
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int ideal = mix(keys[next]) & mask;
+            if (((next - ideal) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = EMPTY;
+        values[gap] = 0;
+        size--;
+        return removed;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, 0);
+        size = 0;
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                consumer.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    private int slotOf(int key) {
+        if (key == EMPTY) {
+            return -1;
+        }
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != EMPTY) {
+                put(oldKeys[slot], oldValues[slot]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private static void checkKey(int key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        return Math.max(capacity, 4);
+    }
+
+    private static int mix(int key) {
+        int hash = key * 0x9e3779b9;
+        return hash ^ (hash >>> 16);
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int key, int value);
+    }
+}
@@ -1,5 +1,6 @@
 package pl.davidduke.util;
 
+import org.mapstruct.DecoratedWith;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import pl.davidduke.dto.RequestPersonDto;
@@ -7,6 +8,7 @@ import pl.davidduke.dto.PersonDto;
 import pl.davidduke.entity.Person;
 
 @Mapper(componentModel = "spring")
+@DecoratedWith(PersonMapperDecorator.class)
 public interface PersonMapper {
     PersonDto personToPersonDto(Person person);
 
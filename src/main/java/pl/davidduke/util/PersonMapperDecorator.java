@@ -0,0 +1,31 @@
+package pl.davidduke.util;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import pl.davidduke.dto.PersonDto;
+import pl.davidduke.dto.RequestPersonDto;
+import pl.davidduke.entity.Person;
+import pl.davidduke.jfr.PipelineEvents;
+
+/**
+ * Records every mapping as a JFR {@code Mapping} event around the generated mapper.
+ */
+public abstract class PersonMapperDecorator implements PersonMapper {
+    @Autowired
+    @Qualifier("delegate")
+    private PersonMapper delegate;
+
+    @Override
+    public PersonDto personToPersonDto(Person person) {
+        return PipelineEvents.isMappingEnabled()
+                ? PipelineEvents.mapping(() -> delegate.personToPersonDto(person))
+                : delegate.personToPersonDto(person);
+    }
+
+    @Override
+    public Person requestPersonDtoToPerson(RequestPersonDto requestPersonDto) {
+        return PipelineEvents.isMappingEnabled()
+                ? PipelineEvents.mapping(() -> delegate.requestPersonDtoToPerson(requestPersonDto))
+                : delegate.requestPersonDtoToPerson(requestPersonDto);
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
+import pl.davidduke.jfr.PipelineEvents;
 
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class IPNImpl implements ConstraintValidator<IPN, String> {
@@ -15,14 +16,27 @@ public class IPNImpl implements ConstraintValidator<IPN, String> {
 
     @Override
     public boolean isValid(String s, ConstraintValidatorContext constraintValidatorContext) {
+        return PipelineEvents.isValidationEnabled()
+                ? PipelineEvents.validation("IPN", () -> hasValidControlNumber(s))
+                : hasValidControlNumber(s);
+    }
+
+    private static boolean hasValidControlNumber(String s) {
         if (s.isBlank() || !s.matches("\\d{10}")) {
             return false;
         }
+        return s.endsWith(String.valueOf(controlNumber(s)));
+    }
+
+    /**
+     * Computes the control (last) digit from the first nine digits of an IPN. A negative result
+     * means no control digit makes these nine digits a valid IPN.
+     */
+    public static int controlNumber(CharSequence digits) {
         int controlSum = 0;
         for (int i = 0; i < COEFFICIENTS.length; i++) {
-            controlSum += COEFFICIENTS[i] * Integer.parseInt(String.valueOf(s.charAt(i)));
+            controlSum += COEFFICIENTS[i] * (digits.charAt(i) - '0');
         }
-        int controlNumber = controlSum % 11 % 10;
-        return s.endsWith(String.valueOf(controlNumber));
+        return controlSum % 11 % 10;
     }
 }
@@ -0,0 +1 @@
+CREATE LINKED TABLE IF NOT EXISTS person('org.h2.Driver', 'jdbc:h2:mem:primary', 'sa', 'password', 'PERSON') READONLY;
@@ -0,0 +1,20 @@
+CREATE TABLE IF NOT EXISTS person
+(
+    id         INT PRIMARY KEY,
+    first_name VARCHAR(255) NOT NULL,
+    last_name  VARCHAR(255) NOT NULL,
+    birthday   DATE         NOT NULL,
+    ipn        VARCHAR(255) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_person_first_name_id ON person (first_name, id);
+CREATE INDEX IF NOT EXISTS idx_person_last_name_id ON person (last_name, id);
+CREATE INDEX IF NOT EXISTS idx_person_birthday_id ON person (birthday, id);
+
+CREATE TABLE IF NOT EXISTS person_ipn
+(
+    ipn       VARCHAR(255) PRIMARY KEY,
+    person_id INT NOT NULL
+);
+
+CREATE SEQUENCE IF NOT EXISTS person_id_seq;
@@ -0,0 +1,95 @@
+package pl.davidduke.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import pl.davidduke.dto.PersonDto;
+import pl.davidduke.dto.RequestPersonDto;
+import pl.davidduke.json.PersonJacksonModule;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the default bean introspection based Jackson path with {@link PersonJacksonModule}
+ * for a page of people and for a create request body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersonJsonBenchmark {
+    static final String REQUEST_BODY =
+            "{\"firstName\":\"Олександр\",\"lastName\":\"Давидюк\",\"birthday\":\"1995-06-05\",\"ipn\":\"2248000331\"}";
+
+    @Param({"default", "module"})
+    public String mapper;
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    ObjectWriter pageWriter;
+    ObjectReader requestReader;
+    Page<PersonDto> page;
+
+    @Setup
+    public void setUp() {
+        // the same modules Spring Boot registers, the request DTO is only readable through its constructor
+        ObjectMapper objectMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .addModule(new ParameterNamesModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        if ("module".equals(mapper)) {
+            objectMapper.registerModule(new PersonJacksonModule());
+        }
+        pageWriter = objectMapper.writer();
+        requestReader = objectMapper.readerFor(RequestPersonDto.class);
+
+        List<PersonDto> people = new ArrayList<>(pageSize);
+        for (int id = 1; id <= pageSize; id++) {
+            people.add(PersonDto.builder()
+                    .id(id)
+                    .firstName("Олександр")
+                    .lastName("Давидюк")
+                    .birthday(LocalDate.of(1950, 1, 1).plusDays(id * 97L))
+                    .ipn("2248000331")
+                    .build());
+        }
+        page = new PageImpl<>(people, PageRequest.of(0, pageSize, Sort.by("lastName")), 10_000);
+    }
+
+    @Benchmark
+    public byte[] writePage() throws IOException {
+        return pageWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public RequestPersonDto readRequest() throws IOException {
+        return requestReader.readValue(REQUEST_BODY);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PersonJsonBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
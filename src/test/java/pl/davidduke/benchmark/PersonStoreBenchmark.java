@@ -0,0 +1,97 @@
+package pl.davidduke.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import pl.davidduke.SimpleRestShppApplication;
+import pl.davidduke.dataset.SyntheticPersonGenerator;
+import pl.davidduke.entity.Person;
+import pl.davidduke.repository.PersonStore;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the in-memory store against the JPA store on in-memory H2, both picked through
+ * {@code app.person-store} in an application context without the web layer. Run with
+ * {@code main} from the test class path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(16)
+public class PersonStoreBenchmark {
+    static final int PEOPLE = 50_000;
+
+    @Param({"jpa", "in-memory"})
+    public String store;
+
+    ConfigurableApplicationContext context;
+    PersonStore personStore;
+    SyntheticPersonGenerator generator;
+    String[] ipns;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(SimpleRestShppApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "app.person-store=" + store,
+                        "spring.datasource.url=jdbc:h2:mem:store-benchmark-" + store,
+                        "logging.level.root=WARN")
+                .run();
+        personStore = context.getBean(PersonStore.class);
+        generator = new SyntheticPersonGenerator(LocalDate.now());
+        SplittableRandom random = new SplittableRandom(42);
+        ipns = new String[PEOPLE];
+        for (int i = 0; i < PEOPLE; i++) {
+            ipns[i] = personStore.save(generator.next(random)).getIpn();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Person> findById() {
+        return personStore.findById(ThreadLocalRandom.current().nextInt(1, PEOPLE + 1));
+    }
+
+    @Benchmark
+    public Optional<Person> findByIpn() {
+        return personStore.findByIpn(ipns[ThreadLocalRandom.current().nextInt(PEOPLE)]);
+    }
+
+    @Benchmark
+    public Page<Person> findAllSortedByLastName() {
+        int page = ThreadLocalRandom.current().nextInt(10);
+        return personStore.findAll(PageRequest.of(page, 20, Sort.by("lastName")));
+    }
+
+    @Benchmark
+    public Person create() {
+        return personStore.save(generator.next(ThreadLocalRandom.current()));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PersonStoreBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
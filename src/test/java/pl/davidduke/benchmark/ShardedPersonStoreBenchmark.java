@@ -0,0 +1,107 @@
+package pl.davidduke.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import pl.davidduke.entity.Person;
+import pl.davidduke.sharding.ShardedPersonStore;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of the sharded store as shards are added, each shard being its own in-memory H2
+ * database. Run with {@code main} from the test class path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(16)
+public class ShardedPersonStoreBenchmark {
+    static final int PEOPLE = 50_000;
+    static final String[] LAST_NAMES = {"Шевченко", "Коваленко", "Бондаренко", "Ткаченко", "Кравченко",
+            "Олійник", "Шевчук", "Поліщук", "Мельник", "Бойко"};
+
+    @Param({"1", "2", "4", "8"})
+    public int shards;
+
+    ShardedPersonStore store;
+    final AtomicLong nextIpn = new AtomicLong(PEOPLE);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<DataSource> dataSources = new ArrayList<>();
+        for (int shard = 0; shard < shards; shard++) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl("jdbc:h2:mem:benchmark-" + shards + "-" + shard + ";DB_CLOSE_DELAY=-1");
+            dataSource.setUsername("sa");
+            dataSource.setMaximumPoolSize(16);
+            dataSources.add(dataSource);
+        }
+        store = new ShardedPersonStore(dataSources, 16);
+        for (int i = 0; i < PEOPLE; i++) {
+            store.save(person(i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Benchmark
+    public Optional<Person> findById() {
+        return store.findById(ThreadLocalRandom.current().nextInt(1, PEOPLE + 1));
+    }
+
+    @Benchmark
+    public Optional<Person> findByIpn() {
+        return store.findByIpn(ipn(ThreadLocalRandom.current().nextInt(PEOPLE)));
+    }
+
+    @Benchmark
+    public Page<Person> findAllSortedByLastName() {
+        int page = ThreadLocalRandom.current().nextInt(10);
+        return store.findAll(PageRequest.of(page, 20, Sort.by("lastName")));
+    }
+
+    @Benchmark
+    public Person create() {
+        return store.save(person(nextIpn.getAndIncrement()));
+    }
+
+    private static Person person(long number) {
+        return Person.builder()
+                .firstName("Олександр")
+                .lastName(LAST_NAMES[(int) (number % LAST_NAMES.length)])
+                .birthday(LocalDate.of(1950, 1, 1).plusDays(number % 20_000))
+                .ipn(ipn(number))
+                .build();
+    }
+
+    private static String ipn(long number) {
+        return String.format("%010d", number);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ShardedPersonStoreBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,69 @@
+package pl.davidduke.changefeed;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedSubscriberTest {
+    static final Executor NEW_THREAD = task -> new Thread(task).start();
+
+    @Test
+    void offerShouldSendQueuedEventsInOrder() {
+        RecordingEmitter emitter = new RecordingEmitter(false);
+        ChangeFeedSubscriber subscriber = new ChangeFeedSubscriber(emitter, 8, Runnable::run);
+
+        subscriber.offer(event(1));
+        subscriber.offer(event(2));
+
+        assertEquals(List.of("id:1", "id:2"), emitter.events());
+    }
+
+    @Test
+    void offerShouldDisconnectClientWhoseBufferOverflows() {
+        ChangeFeedSubscriber subscriber = new ChangeFeedSubscriber(new RecordingEmitter(false), 2, task -> {
+        });
+
+        assertTrue(subscriber.offer(event(1)));
+        assertTrue(subscriber.offer(event(2)));
+        assertFalse(subscriber.offer(event(3)));
+        assertTrue(subscriber.isClosed());
+        assertFalse(subscriber.offer(event(4)));
+    }
+
+    @Test
+    void closeShouldNotWaitForStalledWriteAndCompleteOnceItReturns() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter(true);
+        ChangeFeedSubscriber subscriber = new ChangeFeedSubscriber(emitter, 8, NEW_THREAD);
+
+        subscriber.offer(event(1));
+        subscriber.offer(event(2));
+        RecordingEmitter.await(() -> subscriber.isStalled(System.nanoTime() + TimeUnit.SECONDS.toNanos(1), 0));
+        subscriber.close();
+
+        assertTrue(subscriber.isClosed());
+        assertFalse(emitter.isCompleted());
+        emitter.release();
+        RecordingEmitter.await(emitter::isCompleted);
+        assertEquals(List.of("id:1"), emitter.events());
+    }
+
+    @Test
+    void closeShouldCompleteIdleClientImmediately() {
+        RecordingEmitter emitter = new RecordingEmitter(false);
+        ChangeFeedSubscriber subscriber = new ChangeFeedSubscriber(emitter, 8, Runnable::run);
+
+        subscriber.close();
+
+        assertTrue(emitter.isCompleted());
+        assertFalse(subscriber.isStalled(System.nanoTime(), 0));
+    }
+
+    private static SseEmitter.SseEventBuilder event(long id) {
+        return SseEmitter.event().id(Long.toString(id));
+    }
+}
@@ -0,0 +1,113 @@
+package pl.davidduke.changefeed;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import pl.davidduke.config.ChangeFeedProperties;
+import pl.davidduke.event.PeopleReloadedEvent;
+import pl.davidduke.event.PersonChangeType;
+import pl.davidduke.event.PersonChangedEvent;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class PersonChangeFeedTest {
+    ChangeFeedProperties properties;
+    PersonChangeFeed changeFeed;
+    boolean blockingClients;
+    RecordingEmitter lastEmitter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ChangeFeedProperties();
+        properties.setLogSize(2);
+        properties.setSendTimeout(Duration.ZERO);
+        changeFeed = new PersonChangeFeed(properties) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                lastEmitter = new RecordingEmitter(blockingClients);
+                return lastEmitter;
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (lastEmitter != null) {
+            lastEmitter.release();
+        }
+        changeFeed.destroy();
+    }
+
+    @Test
+    void subscribeShouldStreamChangesCommittedAfterConnecting() throws InterruptedException {
+        changeFeed.subscribe(null);
+        publish(PersonChangeType.CREATED, 1);
+        publish(PersonChangeType.DELETED, 1);
+
+        RecordingEmitter.await(() -> lastEmitter.events().size() == 2);
+        assertEquals(List.of("id:1\nevent:created", "id:2\nevent:deleted"), lastEmitter.events());
+    }
+
+    @Test
+    void subscribeShouldReplayChangesAfterLastEventId() throws InterruptedException {
+        publish(PersonChangeType.CREATED, 1);
+        publish(PersonChangeType.UPDATED, 1);
+
+        changeFeed.subscribe(1L);
+
+        RecordingEmitter.await(() -> lastEmitter.events().size() == 1);
+        assertEquals(List.of("id:2\nevent:updated"), lastEmitter.events());
+    }
+
+    @Test
+    void subscribeShouldSendResyncWhenLastEventIdFellOutOfLog() throws InterruptedException {
+        publish(PersonChangeType.CREATED, 1);
+        publish(PersonChangeType.CREATED, 2);
+        publish(PersonChangeType.CREATED, 3);
+
+        changeFeed.subscribe(0L);
+
+        RecordingEmitter.await(() -> lastEmitter.events().size() == 1);
+        assertEquals(List.of("id:3\nevent:resync"), lastEmitter.events());
+    }
+
+    @Test
+    void onPeopleReloadedShouldSendResyncToConnectedAndResumingClients() throws InterruptedException {
+        publish(PersonChangeType.CREATED, 1);
+        changeFeed.subscribe(null);
+        RecordingEmitter connected = lastEmitter;
+
+        changeFeed.onPeopleReloaded(new PeopleReloadedEvent(1_000));
+
+        RecordingEmitter.await(() -> connected.events().size() == 1);
+        assertEquals(List.of("id:2\nevent:resync"), connected.events());
+        changeFeed.subscribe(1L);
+        RecordingEmitter.await(() -> lastEmitter.events().size() == 1);
+        assertEquals(List.of("id:2\nevent:resync"), lastEmitter.events());
+    }
+
+    @Test
+    void disconnectStalledSubscribersShouldDropClientsBlockedOnWrite() throws InterruptedException {
+        blockingClients = true;
+        changeFeed.subscribe(null);
+        publish(PersonChangeType.CREATED, 1);
+        RecordingEmitter.await(() -> {
+            changeFeed.disconnectStalledSubscribers();
+            return changeFeed.subscriberCount() == 0;
+        });
+
+        lastEmitter.release();
+        RecordingEmitter.await(lastEmitter::isCompleted);
+    }
+
+    private void publish(PersonChangeType type, int id) {
+        changeFeed.onPersonChanged(new PersonChangedEvent(type, id, null));
+    }
+}
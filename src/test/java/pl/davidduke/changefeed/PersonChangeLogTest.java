@@ -0,0 +1,63 @@
+package pl.davidduke.changefeed;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.davidduke.event.PersonChangeType;
+import pl.davidduke.event.PersonChangedEvent;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class PersonChangeLogTest {
+    PersonChangeLog changeLog;
+
+    @BeforeEach
+    void setUp() {
+        changeLog = new PersonChangeLog(3);
+        for (int id = 1; id <= 5; id++) {
+            changeLog.append(new PersonChangedEvent(PersonChangeType.DELETED, id, null));
+        }
+    }
+
+    @Test
+    void afterShouldReturnChangesFollowingRetainedSequence() {
+        List<ChangeLogEntry> missed = changeLog.after(3).orElseThrow();
+
+        assertEquals(List.of(4L, 5L), missed.stream().map(ChangeLogEntry::sequence).toList());
+        assertEquals(5, missed.get(1).event().getId());
+    }
+
+    @Test
+    void afterShouldReturnAllRetainedChangesWhenOldestIsTheNextOne() {
+        assertEquals(3, changeLog.after(2).orElseThrow().size());
+    }
+
+    @Test
+    void afterShouldReturnNothingWhenClientIsUpToDate() {
+        assertTrue(changeLog.after(5).orElseThrow().isEmpty());
+    }
+
+    @Test
+    void afterShouldReturnEmptyWhenChangesWereOverwritten() {
+        assertTrue(changeLog.after(1).isEmpty());
+    }
+
+    @Test
+    void afterShouldReturnEmptyForSequencesBeforeReset() {
+        long reset = changeLog.reset();
+        changeLog.append(new PersonChangedEvent(PersonChangeType.DELETED, 7, null));
+
+        assertEquals(6, reset);
+        assertTrue(changeLog.after(5).isEmpty());
+        assertEquals(List.of(7L), changeLog.after(6).orElseThrow().stream().map(ChangeLogEntry::sequence).toList());
+    }
+
+    @Test
+    void afterShouldReturnEmptyWhenSequenceIsUnknown() {
+        assertTrue(changeLog.after(6).isEmpty());
+    }
+}
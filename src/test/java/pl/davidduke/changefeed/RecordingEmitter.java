@@ -0,0 +1,68 @@
+package pl.davidduke.changefeed;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Emitter that records the id and name of every event instead of writing to a response, and
+ * can hold writes back to imitate a client that stopped reading.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+class RecordingEmitter extends SseEmitter {
+    List<String> events = new CopyOnWriteArrayList<>();
+    CountDownLatch released;
+    CountDownLatch completed = new CountDownLatch(1);
+
+    RecordingEmitter(boolean blocking) {
+        this.released = new CountDownLatch(blocking ? 1 : 0);
+    }
+
+    @Override
+    public void send(SseEventBuilder builder) {
+        try {
+            released.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        StringBuilder event = new StringBuilder();
+        builder.build().stream()
+                .map(DataWithMediaType::getData)
+                .filter(String.class::isInstance)
+                .forEach(event::append);
+        events.add(event.toString().replace("data:", "").trim());
+    }
+
+    @Override
+    public void complete() {
+        completed.countDown();
+    }
+
+    List<String> events() {
+        return events;
+    }
+
+    void release() {
+        released.countDown();
+    }
+
+    boolean isCompleted() {
+        return completed.getCount() == 0;
+    }
+
+    static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
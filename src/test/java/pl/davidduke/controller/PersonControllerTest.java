@@ -6,19 +6,31 @@ import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.*;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import pl.davidduke.changefeed.PersonChangeFeed;
+import pl.davidduke.dto.BulkPersonUpdateDto;
+import pl.davidduke.dto.BulkUpdateResultDto;
+import pl.davidduke.dto.BulkUpdateStatus;
+import pl.davidduke.dto.PersonDto;
+import pl.davidduke.dto.RequestPersonDto;
 import pl.davidduke.exception.PersonNotFoundException;
+import pl.davidduke.exception.TooManyUpdatesException;
 import pl.davidduke.service.PersonService;
 
 import java.time.LocalDate;
 import java.util.Collections;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -34,7 +46,11 @@ class PersonControllerTest {
     @MockBean
     PersonService personService;
 
-    ResponsePersonDto personDto;
+    @MockBean
+    PersonChangeFeed personChangeFeed;
+
+    PersonDto personDto;
+    RequestPersonDto requestPersonDto;
     ObjectMapper objectMapper;
 
     @BeforeEach
@@ -42,24 +58,30 @@ class PersonControllerTest {
         objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
 
-        personDto = ResponsePersonDto.builder()
+        personDto = PersonDto.builder()
                 .id(1)
                 .firstName("Олександр")
                 .lastName("Давидюк")
                 .birthday(LocalDate.of(1995, 6, 5))
                 .ipn("2248000331")
                 .build();
+        requestPersonDto = RequestPersonDto.builder()
+                .firstName(personDto.getFirstName())
+                .lastName(personDto.getLastName())
+                .birthday(personDto.getBirthday())
+                .ipn(personDto.getIpn())
+                .build();
     }
 
     @Test
     void createPersonShouldSaveNewPersonIntoDBAndReturnPersonDtoAndCreatedStatus() throws Exception {
-        when(personService.createPerson(any(ResponsePersonDto.class)))
+        when(personService.createPerson(any(RequestPersonDto.class)))
                 .thenReturn(personDto);
 
         mockMvc
                 .perform(post("/api/v1/people")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(personDto)))
+                        .content(objectMapper.writeValueAsString(requestPersonDto)))
                 .andExpect(status()
                         .isCreated())
                 .andExpect(jsonPath("$.id")
@@ -74,17 +96,17 @@ class PersonControllerTest {
                         .value(personDto.getIpn()));
 
         verify(personService, times(1))
-                .createPerson(any(ResponsePersonDto.class));
+                .createPerson(any(RequestPersonDto.class));
     }
 
     @Test
     void createPersonShouldReturnBadRequestWhenDataForCreationIsInvalid() throws Exception {
-        personDto.setFirstName(null);
+        requestPersonDto.setFirstName(null);
 
         mockMvc
                 .perform(post("/api/v1/people")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(personDto)))
+                        .content(objectMapper.writeValueAsString(requestPersonDto)))
                 .andExpect(status().isBadRequest());
     }
 
@@ -93,7 +115,7 @@ class PersonControllerTest {
         Pageable pageable = PageRequest.of(0, 10,
                 Sort.by("firstName").descending()
                         .and(Sort.by("lastName").descending()));
-        Page<ResponsePersonDto> personDtoPage =
+        Page<PersonDto> personDtoPage =
                 new PageImpl<>(Collections.singletonList(personDto), pageable, 1);
         when(personService.findAllPeople(any(Pageable.class)))
                 .thenReturn(personDtoPage);
@@ -137,7 +159,7 @@ class PersonControllerTest {
 
     @Test
     void updatePersonShouldUpdatePersonAndReturnStatusOkWhenPersonExistAndNewDataIsValid() throws Exception {
-        ResponsePersonDto updatedPersonDto = ResponsePersonDto
+        PersonDto updatedPersonDto = PersonDto
                 .builder()
                 .id(personDto.getId())
                 .firstName("David")
@@ -146,13 +168,13 @@ class PersonControllerTest {
                 .ipn(personDto.getIpn())
                 .build();
 
-        when(personService.updatePerson(anyInt(), any(ResponsePersonDto.class)))
+        when(personService.updatePerson(anyInt(), any(RequestPersonDto.class)))
                 .thenReturn(updatedPersonDto);
 
         mockMvc
                 .perform(patch("/api/v1/people/1")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(updatedPersonDto)))
+                        .content(objectMapper.writeValueAsString(requestPersonDto)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id")
                         .value(updatedPersonDto.getId()))
@@ -168,27 +190,72 @@ class PersonControllerTest {
 
     @Test
     void updatePersonShouldReturnStatusNotFoundWhenPersonWithSpecifiedIdNotExist() throws Exception {
-        when(personService.updatePerson(anyInt(), any(ResponsePersonDto.class)))
+        when(personService.updatePerson(anyInt(), any(RequestPersonDto.class)))
                 .thenThrow(new PersonNotFoundException(2));
 
         mockMvc
                 .perform(patch("/api/v1/people/2")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(personDto)))
+                        .content(objectMapper.writeValueAsString(requestPersonDto)))
                 .andExpect(status().isNotFound());
     }
 
     @Test
     void updatePersonShouldReturnStatusBadRequestWhenNewPersonDataIsInvalid() throws Exception {
-        personDto.setFirstName(null);
+        requestPersonDto.setFirstName(null);
 
         mockMvc
                 .perform(patch("/api/v1/people/2")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(personDto)))
+                        .content(objectMapper.writeValueAsString(requestPersonDto)))
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void updatePeopleShouldReturnOneResultPerUpdateAndStatusOk() throws Exception {
+        when(personService.updatePeople(anyList()))
+                .thenReturn(List.of(
+                        BulkUpdateResultDto.builder()
+                                .id(1)
+                                .status(BulkUpdateStatus.UPDATED)
+                                .person(personDto)
+                                .build(),
+                        BulkUpdateResultDto.builder()
+                                .id(2)
+                                .status(BulkUpdateStatus.NOT_FOUND)
+                                .build()));
+
+        mockMvc
+                .perform(patch("/api/v1/people")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\":1,\"changes\":{\"firstName\":\"Олександр\"}},{\"id\":2}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].status").value("UPDATED"))
+                .andExpect(jsonPath("$[0].person.firstName").value(personDto.getFirstName()))
+                .andExpect(jsonPath("$[1].id").value(2))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"));
+
+        ArgumentCaptor<List<BulkPersonUpdateDto>> updates = ArgumentCaptor.captor();
+        verify(personService).updatePeople(updates.capture());
+        assertEquals("Олександр", updates.getValue().get(0).getChanges().getFirstName());
+        assertNull(updates.getValue().get(1).getChanges());
+    }
+
+    @Test
+    void updatePeopleShouldReturnStatusBadRequestWhenTooManyUpdatesAreSent() throws Exception {
+        when(personService.updatePeople(anyList()))
+                .thenThrow(new TooManyUpdatesException(1_001, 1_000));
+
+        mockMvc
+                .perform(patch("/api/v1/people")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\":1}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("BAD_REQUEST"))
+                .andExpect(jsonPath("$.message").value(new TooManyUpdatesException(1_001, 1_000).getMessage()));
+    }
+
     @Test
     void deletePersonShouldDeletePersonAndReturnStatusOk() throws Exception {
         doNothing()
@@ -0,0 +1,148 @@
+package pl.davidduke.controller;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import pl.davidduke.changefeed.PersonChangeFeed;
+import pl.davidduke.config.PeopleApiConfig;
+import pl.davidduke.entity.Person;
+import pl.davidduke.repository.PersonStore;
+import pl.davidduke.search.PersonSearchIndex;
+import pl.davidduke.service.PersonService;
+import pl.davidduke.util.PersonMapperImpl;
+import pl.davidduke.util.PersonMapperImpl_;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the multi-get endpoints through the real {@link PersonService} against a mocked store, so
+ * ordering, duplicates and missing people are checked end to end.
+ */
+@WebMvcTest(PersonController.class)
+@Import({PersonService.class, PersonMapperImpl.class, PersonMapperImpl_.class, PeopleApiConfig.class})
+@TestPropertySource(properties = "app.people.lookup-max-ids=3")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class PersonLookupControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    PersonStore personStore;
+
+    @MockBean
+    PersonSearchIndex searchIndex;
+
+    @MockBean
+    PersonChangeFeed personChangeFeed;
+
+    @BeforeEach
+    void setUp() {
+        when(personStore.findAllById(anyCollection())).thenAnswer(invocation -> {
+            Collection<Integer> ids = invocation.getArgument(0);
+            return ids.stream()
+                    .filter(id -> id == 1 || id == 2)
+                    .map(PersonLookupControllerTest::person)
+                    .toList();
+        });
+    }
+
+    @Test
+    void returnPeopleByIdsShouldKeepRequestedOrderAndReportMissingPeople() throws Exception {
+        mockMvc
+                .perform(get("/api/v1/people").param("ids", "2,7,1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andExpect(jsonPath("$[0].found").value(true))
+                .andExpect(jsonPath("$[0].person.firstName").value("Олександр2"))
+                .andExpect(jsonPath("$[1].id").value(7))
+                .andExpect(jsonPath("$[1].found").value(false))
+                .andExpect(jsonPath("$[1].person").doesNotExist())
+                .andExpect(jsonPath("$[2].id").value(1))
+                .andExpect(jsonPath("$[2].found").value(true));
+    }
+
+    @Test
+    void lookupPeopleShouldAnswerDuplicatesFromOneQuery() throws Exception {
+        mockMvc
+                .perform(post("/api/v1/people/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1,1,2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].person.id").value(1))
+                .andExpect(jsonPath("$[1].person.id").value(1))
+                .andExpect(jsonPath("$[2].person.id").value(2));
+
+        ArgumentCaptor<Collection<Integer>> requestedIds = ArgumentCaptor.captor();
+        verify(personStore).findAllById(requestedIds.capture());
+        assertThat(requestedIds.getValue()).containsExactly(1, 2);
+    }
+
+    @Test
+    void returnPeopleByIdsShouldReturnBadRequestWhenTooManyIdsAreRequested() throws Exception {
+        mockMvc
+                .perform(get("/api/v1/people").param("ids", "1,2,3,4"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("BAD_REQUEST"))
+                .andExpect(jsonPath("$.message").value("Requested 4 ids, at most 3 can be fetched at once."));
+
+        verify(personStore, never()).findAllById(any());
+    }
+
+    @Test
+    void returnPeopleByIdsShouldReturnBadRequestWhenAnIdIsEmpty() throws Exception {
+        mockMvc
+                .perform(get("/api/v1/people").param("ids", "1,,2"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("BAD_REQUEST"))
+                .andExpect(jsonPath("$.message").value("Requested id at position 1 is empty."));
+
+        verify(personStore, never()).findAllById(any());
+    }
+
+    @Test
+    void lookupPeopleShouldReturnBadRequestWhenAnIdIsNull() throws Exception {
+        mockMvc
+                .perform(post("/api/v1/people/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1,null]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Requested id at position 1 is empty."));
+
+        verify(personStore, never()).findAllById(any());
+    }
+
+    private static Person person(int id) {
+        return Person.builder()
+                .id(id)
+                .firstName("Олександр" + id)
+                .lastName("Давидюк")
+                .birthday(LocalDate.of(1995, 6, 5))
+                .ipn(List.of("2248000331", "2248000348").get(id - 1))
+                .build();
+    }
+}
@@ -0,0 +1,121 @@
+package pl.davidduke.controller;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import pl.davidduke.changefeed.PersonChangeFeed;
+import pl.davidduke.config.PeopleApiConfig;
+import pl.davidduke.entity.Person;
+import pl.davidduke.repository.PersonStore;
+import pl.davidduke.search.PersonSearchIndex;
+import pl.davidduke.service.PersonService;
+import pl.davidduke.util.PersonMapperImpl;
+import pl.davidduke.util.PersonMapperImpl_;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs name search through the real {@link PersonService} and {@link PersonSearchIndex}, with
+ * the people themselves loaded from a mocked store.
+ */
+@WebMvcTest(PersonController.class)
+@Import({PersonService.class, PersonSearchIndex.class, PersonMapperImpl.class, PersonMapperImpl_.class,
+        PeopleApiConfig.class})
+@TestPropertySource(properties = "app.people.search-max-results=2")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class PersonSearchControllerTest {
+    static final Map<Integer, Person> PEOPLE = Map.of(
+            1, person(1, "Олександр", "Давидюк", "2248000331"),
+            2, person(2, "Тарас", "Шевченко", "2248000348"),
+            3, person(3, "Олена", "Шевчук", "2248000354"),
+            4, person(4, "Петро", "Шевчишин", "2248000360"));
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    PersonSearchIndex searchIndex;
+
+    @MockBean
+    PersonStore personStore;
+
+    @MockBean
+    PersonChangeFeed personChangeFeed;
+
+    @BeforeEach
+    void setUp() {
+        PEOPLE.values().forEach(person -> searchIndex.put(person.getId(), person.getFirstName(), person.getLastName()));
+        when(personStore.findAllById(anyCollection())).thenAnswer(invocation -> {
+            Collection<Integer> ids = invocation.getArgument(0);
+            return ids.stream().map(PEOPLE::get).toList();
+        });
+    }
+
+    @Test
+    void searchPeopleShouldReturnRankedPeople() throws Exception {
+        mockMvc
+                .perform(get("/api/v1/people/search").param("q", "Шевчук"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(3))
+                .andExpect(jsonPath("$[0].lastName").value("Шевчук"))
+                .andExpect(jsonPath("$[1].id").value(2));
+    }
+
+    @Test
+    void searchPeopleShouldHonourRequestedLimit() throws Exception {
+        mockMvc
+                .perform(get("/api/v1/people/search").param("q", "Шевчук").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(3));
+    }
+
+    @Test
+    void searchPeopleShouldCapLimitAtConfiguredMaximum() throws Exception {
+        mockMvc
+                .perform(get("/api/v1/people/search").param("q", "шевч").param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void searchPeopleShouldReturnEmptyListWhenNothingMatches() throws Exception {
+        mockMvc
+                .perform(get("/api/v1/people/search").param("q", "Франко"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void searchPeopleShouldReturnBadRequestWithoutQuery() throws Exception {
+        mockMvc
+                .perform(get("/api/v1/people/search"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static Person person(int id, String firstName, String lastName, String ipn) {
+        return Person.builder()
+                .id(id)
+                .firstName(firstName)
+                .lastName(lastName)
+                .birthday(LocalDate.of(1990, 3, 9))
+                .ipn(ipn)
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+package pl.davidduke.dataset;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.davidduke.config.DatasetProperties;
+import pl.davidduke.event.PeopleReloadedEvent;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class PersonDatasetLoaderTest {
+    DataSource dataSource;
+    JdbcTemplate jdbcTemplate;
+    DatasetProperties properties;
+    List<Object> events;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:dataset-loader;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE person (id INT AUTO_INCREMENT PRIMARY KEY, first_name VARCHAR(100), "
+                + "last_name VARCHAR(100), birthday DATE, ipn VARCHAR(10) UNIQUE)");
+        properties = new DatasetProperties();
+        properties.setChunkSize(500);
+        properties.setBatchSize(100);
+        properties.setThreads(2);
+        events = new ArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE person");
+    }
+
+    @Test
+    void loadShouldNotRepeatIpnsAlreadyInTable() {
+        newLoader().load(2_000);
+
+        // a new loader with the same seed, like after a restart, starts with the same people
+        newLoader().load(2_000);
+
+        assertEquals(4_000, jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT ipn) FROM person", Long.class));
+    }
+
+    @Test
+    void loadShouldPublishReloadOnceAllRowsAreCommitted() {
+        newLoader().load(1_200);
+
+        assertEquals(List.of(new PeopleReloadedEvent(1_200)), events);
+    }
+
+    private PersonDatasetLoader newLoader() {
+        return new PersonDatasetLoader(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), properties, events::add);
+    }
+}
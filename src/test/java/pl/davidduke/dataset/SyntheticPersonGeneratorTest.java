@@ -0,0 +1,96 @@
+package pl.davidduke.dataset;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.Test;
+import pl.davidduke.entity.Person;
+import pl.davidduke.validation.IPNImpl;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class SyntheticPersonGeneratorTest {
+    static final LocalDate REFERENCE_DATE = LocalDate.of(2024, 6, 1);
+
+    final SyntheticPersonGenerator generator = new SyntheticPersonGenerator(REFERENCE_DATE);
+    final IPNImpl validator = new IPNImpl();
+
+    @Test
+    void nextShouldGenerateAdultsWithValidUniqueIpns() {
+        SplittableRandom random = new SplittableRandom(42);
+        Set<String> ipns = new HashSet<>();
+        for (int i = 0; i < 50_000; i++) {
+            Person person = generator.next(random);
+            assertTrue(validator.isValid(person.getIpn(), null), person.getIpn());
+            assertTrue(ipns.add(person.getIpn()), person.getIpn());
+            assertFalse(person.getBirthday().isAfter(REFERENCE_DATE.minusYears(18)));
+            assertTrue(person.getBirthday().isAfter(REFERENCE_DATE.minusYears(96)));
+        }
+    }
+
+    @Test
+    void nextShouldEncodeBirthdayAndSexIntoIpn() {
+        Person person = generator.next(new SplittableRandom(7));
+        long days = Long.parseLong(person.getIpn().substring(0, 5));
+        boolean male = (person.getIpn().charAt(8) - '0') % 2 == 1;
+
+        assertEquals(person.getBirthday(), LocalDate.of(1899, 12, 31).plusDays(days));
+        assertEquals(male, List.of(SyntheticPersonGenerator.MALE_FIRST_NAMES).contains(person.getFirstName()));
+    }
+
+    @Test
+    void ipnShouldMoveToOlderDayWhenAllSerialsOfBirthdayAreTaken() {
+        LocalDate birthday = REFERENCE_DATE.minusYears(30);
+        List<String> ipns = new ArrayList<>();
+        IntStream.range(0, SyntheticPersonGenerator.SERIALS_PER_SEX + 1)
+                .forEach(i -> ipns.add(generator.ipn(birthday, true)));
+
+        assertEquals(ipns.size(), new HashSet<>(ipns).size());
+        assertTrue(ipns.stream().allMatch(ipn -> validator.isValid(ipn, null)));
+        assertTrue(Long.parseLong(ipns.get(ipns.size() - 1).substring(0, 5))
+                < Long.parseLong(ipns.get(0).substring(0, 5)));
+    }
+
+    @Test
+    void personShouldGetBirthdayOfIpnWhenItsDayIsFull() {
+        LocalDate birthday = REFERENCE_DATE.minusYears(30);
+        SplittableRandom random = new SplittableRandom(42);
+        List<Person> people = new ArrayList<>();
+        IntStream.range(0, SyntheticPersonGenerator.SERIALS_PER_SEX + 1)
+                .forEach(i -> people.add(generator.person(birthday, false, random)));
+
+        Person last = people.get(people.size() - 1);
+        assertEquals(birthday.minusDays(1), last.getBirthday());
+        for (Person person : people) {
+            long days = Long.parseLong(person.getIpn().substring(0, 5));
+            assertEquals(LocalDate.of(1899, 12, 31).plusDays(days), person.getBirthday(), person.getIpn());
+            assertTrue(validator.isValid(person.getIpn(), null), person.getIpn());
+        }
+    }
+
+    @Test
+    void ipnShouldSkipReservedSerials() {
+        LocalDate birthday = REFERENCE_DATE.minusYears(30);
+        SyntheticPersonGenerator other = new SyntheticPersonGenerator(REFERENCE_DATE);
+        List<String> taken = List.of(other.ipn(birthday, true), other.ipn(birthday, true), other.ipn(birthday, false));
+
+        taken.forEach(generator::reserve);
+        generator.reserve("not an ipn");
+        generator.reserve("0000000000");
+
+        String male = generator.ipn(birthday, true);
+        String female = generator.ipn(birthday, false);
+        assertFalse(taken.contains(male));
+        assertFalse(taken.contains(female));
+        assertTrue(male.compareTo(taken.get(1)) > 0);
+        assertTrue(female.compareTo(taken.get(2)) > 0);
+    }
+}
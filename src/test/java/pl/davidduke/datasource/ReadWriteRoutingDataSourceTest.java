@@ -0,0 +1,111 @@
+package pl.davidduke.datasource;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import pl.davidduke.config.ReadWriteRoutingProperties;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class ReadWriteRoutingDataSourceTest {
+    DataSource primary;
+    DataSource replica;
+    ReplicaHealthMonitor monitor;
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate readOnlyTransaction;
+    TransactionTemplate writeTransaction;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("routing-primary");
+        replica = h2("routing-replica");
+
+        ReadWriteRoutingProperties properties = new ReadWriteRoutingProperties();
+        monitor = new ReplicaHealthMonitor(replica, properties);
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(properties);
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(monitor, tracker);
+        routingDataSource.setTargetDataSources(Map.of(
+                DataSourceRole.PRIMARY, primary,
+                DataSourceRole.REPLICA, replica));
+        routingDataSource.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionManager.addListener(tracker);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        writeTransaction = new TransactionTemplate(transactionManager);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(properties.getClientIdHeader(), "client-1");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyTransactionShouldUseReplicaWhenReplicaIsHealthy() {
+        monitor.checkReplica();
+
+        assertEquals("routing-replica", readOnlyTransaction.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void readOnlyTransactionShouldFallBackToPrimaryWhenReplicaIsNotChecked() {
+        assertEquals("routing-primary", readOnlyTransaction.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void writeTransactionShouldUsePrimary() {
+        monitor.checkReplica();
+
+        assertEquals("routing-primary", writeTransaction.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void readOnlyTransactionShouldStickToPrimaryRightAfterClientWrote() {
+        monitor.checkReplica();
+
+        writeTransaction.execute(status -> currentDatabase());
+
+        assertEquals("routing-primary", readOnlyTransaction.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void readOnlyTransactionShouldUseReplicaWhenClientsWriteWasRolledBack() {
+        monitor.checkReplica();
+
+        writeTransaction.executeWithoutResult(status -> {
+            currentDatabase();
+            status.setRollbackOnly();
+        });
+
+        assertEquals("routing-replica", readOnlyTransaction.execute(status -> currentDatabase()));
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("SELECT LOWER(DATABASE())", String.class);
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -0,0 +1,123 @@
+package pl.davidduke.datasource;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import pl.davidduke.config.ReadWriteRoutingProperties;
+import pl.davidduke.dto.PersonDto;
+import pl.davidduke.dto.RequestPersonDto;
+import pl.davidduke.service.PersonService;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routes real {@link PersonService} calls through Hibernate and the {@link JpaTransactionManager}.
+ * The replica is a separate database with a person row of its own instead of a linked table,
+ * so a read can only find that row when it went to the replica.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.routing.enabled=true",
+        "app.datasource.routing.primary.url=jdbc:h2:mem:jpa-routing-primary",
+        "app.datasource.routing.replica.url=jdbc:h2:mem:jpa-routing-replica",
+        "spring.jpa.open-in-view=false"
+})
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class ReadWriteRoutingJpaTest {
+    static final int REPLICA_ONLY_ID = 1_000;
+
+    @Autowired
+    PersonService service;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    ReadWriteRoutingProperties properties;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    DataSource replicaDataSource;
+
+    JdbcTemplate primary;
+    JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("CREATE TABLE IF NOT EXISTS person (id INT PRIMARY KEY, first_name VARCHAR(255),"
+                + " last_name VARCHAR(255), birthday DATE, ipn VARCHAR(255))");
+        replica.update("INSERT INTO person VALUES (?, 'Олександр', 'Давидюк', DATE '1995-06-05', '2248000331')",
+                REPLICA_ONLY_ID);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        // a client of its own per test, a write in one test must not make the next one sticky
+        request.addHeader(properties.getClientIdHeader(), UUID.randomUUID().toString());
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        replica.execute("DROP TABLE person");
+        primary.update("DELETE FROM person");
+    }
+
+    @Test
+    void applicationShouldUseJpaTransactionManager() {
+        assertInstanceOf(JpaTransactionManager.class, transactionManager);
+    }
+
+    @Test
+    void readOnlyServiceCallShouldGoToReplica() {
+        PersonDto person = service.findPersonById(REPLICA_ONLY_ID);
+
+        assertEquals("2248000331", person.getIpn());
+    }
+
+    @Test
+    void writeShouldGoToPrimary() {
+        PersonDto person = service.createPerson(RequestPersonDto.builder()
+                .firstName("David")
+                .lastName("Duke")
+                .birthday(LocalDate.of(1995, 6, 5))
+                .ipn("2248000348")
+                .build());
+
+        assertEquals(1, primary.queryForObject("SELECT COUNT(*) FROM person WHERE id = ?", Integer.class,
+                person.getId()));
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM person WHERE ipn = '2248000348'",
+                Integer.class));
+    }
+
+    @Test
+    void readAfterWriteOfSameClientShouldGoToPrimary() {
+        PersonDto person = service.createPerson(RequestPersonDto.builder()
+                .firstName("David")
+                .lastName("Duke")
+                .birthday(LocalDate.of(1995, 6, 5))
+                .ipn("2248000348")
+                .build());
+
+        assertEquals("2248000348", service.findPersonById(person.getId()).getIpn());
+    }
+}
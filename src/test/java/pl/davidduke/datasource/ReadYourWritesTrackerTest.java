@@ -0,0 +1,85 @@
+package pl.davidduke.datasource;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import pl.davidduke.config.ReadWriteRoutingProperties;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class ReadYourWritesTrackerTest {
+    ReadWriteRoutingProperties properties;
+    ReadYourWritesTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ReadWriteRoutingProperties();
+        properties.setMaxTrackedClients(2);
+        tracker = new ReadYourWritesTracker(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void recordWriteShouldEvictOldestClientWhenFull() throws InterruptedException {
+        tracker.recordWrite("client-1");
+        Thread.sleep(1);
+        tracker.recordWrite("client-2");
+        Thread.sleep(1);
+        tracker.recordWrite("client-3");
+
+        assertEquals(2, tracker.trackedClients());
+        assertFalse(isWithinStickinessWindow("client-1"));
+        assertTrue(isWithinStickinessWindow("client-2"));
+        assertTrue(isWithinStickinessWindow("client-3"));
+    }
+
+    @Test
+    void recordWriteShouldRefreshTrackedClientWhenFull() throws InterruptedException {
+        tracker.recordWrite("client-1");
+        Thread.sleep(1);
+        tracker.recordWrite("client-2");
+        Thread.sleep(1);
+        tracker.recordWrite("client-1");
+        Thread.sleep(1);
+        tracker.recordWrite("client-3");
+
+        assertTrue(isWithinStickinessWindow("client-1"));
+        assertFalse(isWithinStickinessWindow("client-2"));
+        assertTrue(isWithinStickinessWindow("client-3"));
+    }
+
+    @Test
+    void recordWriteShouldExtendStickinessWindowOfTrackedClient() throws InterruptedException {
+        properties.setStickinessWindow(Duration.ofMillis(400));
+
+        tracker.recordWrite("client-1");
+        tracker.recordWrite("client-2");
+        Thread.sleep(250);
+        tracker.recordWrite("client-1");
+        Thread.sleep(250);
+
+        assertTrue(isWithinStickinessWindow("client-1"));
+        assertFalse(isWithinStickinessWindow("client-2"));
+    }
+
+    private boolean isWithinStickinessWindow(String clientId) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(properties.getClientIdHeader(), clientId);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        return tracker.isWithinStickinessWindow();
+    }
+}
@@ -0,0 +1,83 @@
+package pl.davidduke.jfr;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import pl.davidduke.config.JfrProperties;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class OnDemandRecordingTest {
+    @TempDir
+    Path directory;
+
+    OnDemandRecording recording;
+
+    @BeforeEach
+    void setUp() {
+        JfrProperties properties = new JfrProperties();
+        properties.setDumpDirectory(directory);
+        properties.setMaxDumps(2);
+        recording = new OnDemandRecording(properties, new DefaultResourceLoader());
+    }
+
+    @AfterEach
+    void tearDown() {
+        recording.destroy();
+    }
+
+    @Test
+    void startShouldStartOnlyOneRecording() throws Exception {
+        assertTrue(recording.start());
+        assertFalse(recording.start());
+        assertTrue(recording.isRunning());
+    }
+
+    @Test
+    void dumpShouldWriteFileAndKeepRecording() throws Exception {
+        recording.start();
+
+        Path file = recording.dump();
+
+        assertTrue(Files.size(file) > 0);
+        assertEquals(directory, file.getParent());
+        assertTrue(recording.isRunning());
+    }
+
+    @Test
+    void dumpShouldKeepOnlyNewestDumps() throws Exception {
+        recording.start();
+        Path unrelated = Files.createFile(directory.resolve("other.jfr"));
+
+        List<Path> dumps = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            dumps.add(recording.dump());
+            Thread.sleep(2);
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(unrelated, dumps.get(1), dumps.get(2)), files.sorted().toList());
+        }
+    }
+
+    @Test
+    void stopShouldStopRunningRecordingOnce() throws Exception {
+        recording.start();
+
+        assertTrue(recording.stop());
+        assertFalse(recording.stop());
+        assertFalse(recording.isRunning());
+        assertThrows(IllegalStateException.class, recording::dump);
+    }
+}
@@ -0,0 +1,92 @@
+package pl.davidduke.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineEventInterceptorTest {
+    final PipelineEventInterceptor interceptor = new PipelineEventInterceptor();
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void tearDown() {
+        PipelineContext.clear();
+    }
+
+    @Test
+    void requestShouldSetContextAndBeRecordedOnCompletion() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/people/7");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", "7"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(404);
+
+        try (Recording recording = new Recording()) {
+            recording.enable("pl.davidduke.PersonRequest").withoutThreshold();
+            recording.start();
+
+            interceptor.preHandle(request, response, handler());
+            assertEquals(new PipelineContext("returnPersonById", 7), PipelineContext.current());
+            interceptor.afterCompletion(request, response, handler(), null);
+            assertSame(PipelineContext.NONE, PipelineContext.current());
+
+            recording.stop();
+            Path file = directory.resolve("recording.jfr");
+            recording.dump(file);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals("pl.davidduke.PersonRequest"))
+                    .toList();
+            assertEquals(1, events.size());
+            assertEquals("GET", events.get(0).getString("method"));
+            assertEquals(404, events.get(0).getInt("status"));
+            assertEquals("returnPersonById", events.get(0).getString("endpoint"));
+            assertEquals(7, events.get(0).getInt("personId"));
+        }
+    }
+
+    @Test
+    void requestShouldUseZeroPersonIdWhenIdIsNotNumeric() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/people/abc");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", "abc"));
+
+        interceptor.preHandle(request, new MockHttpServletResponse(), handler());
+
+        assertEquals(0, PipelineContext.current().personId());
+    }
+
+    @Test
+    void requestShouldBeIgnoredWhenHandlerIsNotAMethod() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/static/index.html");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, new Object());
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertSame(PipelineContext.NONE, PipelineContext.current());
+        assertNull(request.getAttribute(PipelineEventInterceptor.REQUEST_EVENT_ATTRIBUTE));
+    }
+
+    private static HandlerMethod handler() throws NoSuchMethodException {
+        return new HandlerMethod(new Handler(), Handler.class.getMethod("returnPersonById", int.class));
+    }
+
+    static class Handler {
+        public String returnPersonById(int id) {
+            return "person " + id;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package pl.davidduke.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineEventsTest {
+    static final String REPOSITORY_EVENT = "pl.davidduke.Repository";
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void tearDown() {
+        PipelineContext.clear();
+    }
+
+    @Test
+    void phaseShouldRunWithoutEventsWhileNoRecordingEnablesThem() throws IOException {
+        assertFalse(PipelineEvents.isRepositoryEnabled());
+        try (Recording recording = new Recording()) {
+            recording.disable(REPOSITORY_EVENT);
+            recording.start();
+            assertFalse(PipelineEvents.isRepositoryEnabled());
+
+            assertEquals("found", PipelineEvents.repository("findById", () -> "found"));
+
+            assertTrue(events(recording).isEmpty());
+        }
+    }
+
+    @Test
+    void phaseShouldBeRecordedWithContextWhileRecordingEnablesIt() throws IOException {
+        PipelineContext.set(new PipelineContext("returnPersonById", 7));
+        try (Recording recording = new Recording()) {
+            recording.enable(REPOSITORY_EVENT).withoutThreshold();
+            recording.disable("pl.davidduke.Mapping");
+            recording.start();
+            assertTrue(PipelineEvents.isRepositoryEnabled());
+            assertFalse(PipelineEvents.isMappingEnabled());
+
+            assertEquals("found", PipelineEvents.repository("findById", () -> "found"));
+            PipelineEvents.mapping(() -> "mapped");
+
+            List<RecordedEvent> events = events(recording);
+            assertEquals(1, events.size());
+            assertEquals(REPOSITORY_EVENT, events.get(0).getEventType().getName());
+            assertEquals("findById", events.get(0).getString("operation"));
+            assertEquals("returnPersonById", events.get(0).getString("endpoint"));
+            assertEquals(7, events.get(0).getInt("personId"));
+        }
+        assertFalse(PipelineEvents.isRepositoryEnabled());
+    }
+
+    @Test
+    void phaseShouldBeRecordedWhenItThrows() throws IOException {
+        try (Recording recording = new Recording()) {
+            recording.enable(REPOSITORY_EVENT).withoutThreshold();
+            recording.start();
+
+            assertThrows(IllegalStateException.class, () -> PipelineEvents.repository("save", () -> {
+                throw new IllegalStateException();
+            }));
+
+            assertEquals(1, events(recording).size());
+        }
+    }
+
+    private List<RecordedEvent> events(Recording recording) throws IOException {
+        recording.stop();
+        Path file = directory.resolve("recording.jfr");
+        recording.dump(file);
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("pl.davidduke."))
+                .toList();
+    }
+}
@@ -0,0 +1,122 @@
+package pl.davidduke.json;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.config.SpringDataJacksonConfiguration;
+import pl.davidduke.dto.PersonDto;
+import pl.davidduke.dto.RequestPersonDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class PersonJacksonModuleTest {
+    ObjectMapper defaultMapper;
+    ObjectMapper moduleMapper;
+    PersonDto personDto;
+
+    @BeforeEach
+    void setUp() {
+        defaultMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        moduleMapper = defaultMapper.copy().registerModule(new PersonJacksonModule());
+        personDto = PersonDto.builder()
+                .id(1)
+                .firstName("Олександр")
+                .lastName("Давидюк")
+                .birthday(LocalDate.of(1995, 6, 5))
+                .ipn("2248000331")
+                .build();
+    }
+
+    @Test
+    void personDtoShouldBeWrittenLikeDefaultMapperDoes() throws Exception {
+        assertEquals(defaultMapper.writeValueAsString(personDto), moduleMapper.writeValueAsString(personDto));
+    }
+
+    @Test
+    void personDtoShouldSurviveRoundTrip() throws Exception {
+        String json = moduleMapper.writeValueAsString(personDto);
+
+        assertEquals(personDto, moduleMapper.readValue(json, PersonDto.class));
+    }
+
+    @Test
+    void personDtoShouldRejectIdsThatAreNotIntegers() {
+        for (String id : List.of("\"abc\"", "1.5", "null")) {
+            String json = "{\"id\": " + id + ", \"firstName\": \"David\"}";
+
+            assertThrows(MismatchedInputException.class, () -> moduleMapper.readValue(json, PersonDto.class), id);
+        }
+    }
+
+    @Test
+    void requestPersonDtoShouldBeReadIgnoringUnknownFields() throws Exception {
+        String json = """
+                {"id": 7, "firstName": "David", "lastName": "Duke", "birthday": "0995-06-05", "ipn": 2248000331}
+                """;
+
+        RequestPersonDto requestPersonDto = moduleMapper
+                .copy()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .readValue(json, RequestPersonDto.class);
+
+        assertEquals("David", requestPersonDto.getFirstName());
+        assertEquals(LocalDate.of(995, 6, 5), requestPersonDto.getBirthday());
+        assertEquals("2248000331", requestPersonDto.getIpn());
+    }
+
+    @Test
+    void requestPersonDtoShouldRejectInvalidDate() {
+        String json = """
+                {"firstName": "David", "lastName": "Duke", "birthday": "1995-02-30", "ipn": "2248000331"}
+                """;
+
+        assertThrows(Exception.class, () -> moduleMapper.readValue(json, RequestPersonDto.class));
+    }
+
+    @Test
+    void pageShouldBeWrittenLikeDefaultMapperDoes() throws Exception {
+        Page<PersonDto> page = new PageImpl<>(List.of(personDto),
+                PageRequest.of(0, 10, Sort.by("lastName")), 1);
+
+        assertEquals(defaultMapper.readTree(defaultMapper.writeValueAsString(page)),
+                moduleMapper.readTree(moduleMapper.writeValueAsString(page)));
+    }
+
+    @Test
+    void pageOfOtherContentShouldBeWrittenLikeDefaultMapperDoes() throws Exception {
+        Page<String> page = new PageImpl<>(List.of("Давидюк", "Duke"), PageRequest.of(1, 2), 5);
+
+        assertEquals(defaultMapper.readTree(defaultMapper.writeValueAsString(page)),
+                moduleMapper.readTree(moduleMapper.writeValueAsString(page)));
+    }
+
+    @Test
+    void unpagedPageShouldBeWrittenLikeSpringDataPageModuleDoes() throws Exception {
+        // plain Jackson cannot write Unpaged at all; the app used to get "INSTANCE" from Spring Data's PageModule
+        ObjectMapper springDataMapper = defaultMapper.copy()
+                .registerModule(new SpringDataJacksonConfiguration.PageModule(null));
+        Page<PersonDto> page = new PageImpl<>(List.of(personDto), Pageable.unpaged(Sort.by("lastName")), 1);
+
+        assertEquals(springDataMapper.readTree(springDataMapper.writeValueAsString(page)),
+                moduleMapper.readTree(moduleMapper.writeValueAsString(page)));
+    }
+}
@@ -0,0 +1,218 @@
+package pl.davidduke.memory;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import pl.davidduke.entity.Person;
+import pl.davidduke.exception.IpnAlreadyExistsException;
+import pl.davidduke.exception.UnsupportedSortException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class InMemoryPersonStoreTest {
+    InMemoryPersonStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryPersonStore();
+        store.save(person("Тарас", "Шевченко", "0248000331"));
+        store.save(person("Олена", "Шевчук", "2248000331"));
+        store.save(person("Олександр", "Давидюк", "3248000331"));
+    }
+
+    @Test
+    void saveShouldAssignIdsAndFindPeopleByIdAndIpn() {
+        assertEquals("Олена", store.findById(2).orElseThrow().getFirstName());
+        assertEquals(1, store.findByIpn("0248000331").orElseThrow().getId());
+        assertTrue(store.findById(4).isEmpty());
+    }
+
+    @Test
+    void saveShouldUpdateExistingPersonAndMoveIpnIndex() {
+        Person person = person("Тарас", "Шевченко", "1248000331");
+        person.setId(1);
+
+        store.save(person);
+
+        assertTrue(store.findByIpn("0248000331").isEmpty());
+        assertEquals(1, store.findByIpn("1248000331").orElseThrow().getId());
+        assertEquals(3, store.size());
+    }
+
+    @Test
+    void saveShouldRejectIpnOfAnotherPerson() {
+        assertThrows(IpnAlreadyExistsException.class, () -> store.save(person("Іван", "Франко", "2248000331")));
+    }
+
+    @Test
+    void deleteByIdShouldKeepRemainingRowsReachable() {
+        store.deleteById(1);
+
+        assertTrue(store.findById(1).isEmpty());
+        assertTrue(store.findByIpn("0248000331").isEmpty());
+        assertEquals("Давидюк", store.findById(3).orElseThrow().getLastName());
+        assertEquals(3, store.findByIpn("3248000331").orElseThrow().getId());
+        assertEquals(4, store.save(person("Іван", "Франко", "0248000331")).getId());
+    }
+
+    @Test
+    void findAllShouldPageInRequestedOrder() {
+        Page<Person> page = store.findAll(PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "lastName")));
+
+        assertEquals(List.of(2, 1), page.map(Person::getId).getContent());
+        assertEquals(3, page.getTotalElements());
+        assertThrows(UnsupportedSortException.class, () -> store.findAll(PageRequest.of(0, 2, Sort.by("ipn"))));
+    }
+
+    @Test
+    void findByIpnShouldNotFindMalformedIpns() {
+        assertTrue(store.findByIpn("abc").isEmpty());
+        assertTrue(store.findByIpn("224800033").isEmpty());
+        assertTrue(store.findAllByIpn(List.of("abc", "2248000331")).stream().allMatch(person -> person.getId() == 2));
+    }
+
+    @Test
+    void findAllShouldKeepEveryOrderCurrentAcrossWrites() {
+        SplittableRandom random = new SplittableRandom(7);
+        Map<Integer, Person> expected = new HashMap<>();
+        store.findAll(Pageable.unpaged()).forEach(person -> expected.put(person.getId(), person));
+        String[] names = {"Андрій", "Богдан", "Віра", "Галина", "Дмитро", "Олена", "Тарас"};
+        for (int i = 0; i < 500; i++) {
+            int operation = random.nextInt(3);
+            if (operation == 0 || expected.isEmpty()) {
+                Person person = person(names[random.nextInt(names.length)], names[random.nextInt(names.length)],
+                        String.format("%010d", 4_000_000_000L + i));
+                person.setBirthday(LocalDate.of(1950 + random.nextInt(50), 1, 1));
+                expected.put(store.save(person).getId(), person);
+            } else {
+                int id = expected.keySet().stream().skip(random.nextInt(expected.size())).findFirst().orElseThrow();
+                if (operation == 1) {
+                    store.deleteById(id);
+                    expected.remove(id);
+                } else {
+                    Person person = person(names[random.nextInt(names.length)], "Шевченко", expected.get(id).getIpn());
+                    person.setId(id);
+                    expected.put(id, store.save(person));
+                }
+            }
+        }
+
+        Map<String, Comparator<Person>> comparators = Map.of(
+                "id", Comparator.comparingInt(Person::getId),
+                "firstName", Comparator.comparing(Person::getFirstName).thenComparingInt(Person::getId),
+                "lastName", Comparator.comparing(Person::getLastName).thenComparingInt(Person::getId),
+                "birthday", Comparator.comparing(Person::getBirthday).thenComparingInt(Person::getId));
+        comparators.forEach((property, comparator) -> {
+            List<Integer> ascending = expected.values().stream().sorted(comparator).map(Person::getId).toList();
+            List<Integer> descending = expected.values().stream().sorted(comparator.reversed()).map(Person::getId).toList();
+            assertEquals(ascending, ids(store.findAll(Pageable.unpaged(Sort.by(Sort.Direction.ASC, property)))), property);
+            assertEquals(descending, ids(store.findAll(Pageable.unpaged(Sort.by(Sort.Direction.DESC, property)))), property);
+        });
+        assertEquals(ascendingIdsAfter(expected, 100), ids(store.findAllAfterId(100, 20)));
+    }
+
+    @Test
+    void insertAllShouldKeepIdsAndSortEveryOrder() {
+        Person olena = person("Олена", "Бойко", "4248000331");
+        olena.setId(20);
+        Person ivan = person("Іван", "Франко", "5248000331");
+        ivan.setId(10);
+
+        store.insertAll(List.of(olena, ivan));
+
+        assertEquals(10, store.findByIpn("5248000331").orElseThrow().getId());
+        assertEquals(List.of(20, 3, 10, 1, 2),
+                ids(store.findAll(Pageable.unpaged(Sort.by(Sort.Direction.ASC, "lastName")))));
+        assertEquals(List.of(10, 20), ids(store.findAllAfterId(3, 5)));
+        assertEquals(21, store.save(person("Леся", "Українка", "6248000331")).getId());
+    }
+
+    @Test
+    void insertAllShouldInsertNobodyWhenAnIpnIsTaken() {
+        Person olena = person("Олена", "Бойко", "4248000331");
+        olena.setId(20);
+        Person ivan = person("Іван", "Франко", "2248000331");
+        ivan.setId(10);
+
+        assertThrows(IpnAlreadyExistsException.class, () -> store.insertAll(List.of(olena, ivan)));
+
+        assertEquals(3, store.size());
+        assertTrue(store.findById(20).isEmpty());
+        assertTrue(store.findByIpn("4248000331").isEmpty());
+        assertEquals(4, store.save(person("Леся", "Українка", "6248000331")).getId());
+    }
+
+    @Test
+    void saveShouldChangeNothingWhenBirthdayIsMissing() {
+        Person person = person("Тарас", "Шевченко", "1248000331");
+        person.setId(1);
+        person.setBirthday(null);
+
+        assertThrows(IllegalArgumentException.class, () -> store.save(person));
+
+        assertEquals(1, store.findByIpn("0248000331").orElseThrow().getId());
+        assertTrue(store.findByIpn("1248000331").isEmpty());
+        assertEquals(List.of(3, 1, 2), ids(store.findAll(Pageable.unpaged(Sort.by("lastName")))));
+        assertEquals(3, store.size());
+    }
+
+    @Test
+    void updateAllShouldWriteNobodyWhenOneUpdateFails() {
+        Person taras = person("Тарас", "Франко", "1248000331");
+        taras.setId(1);
+        Person olena = person("Олена", "Бойко", "3248000331");
+        olena.setId(2);
+
+        assertThrows(IpnAlreadyExistsException.class, () -> store.updateAll(List.of(taras, olena)));
+
+        assertEquals("Шевченко", store.findById(1).orElseThrow().getLastName());
+        assertEquals(1, store.findByIpn("0248000331").orElseThrow().getId());
+        assertTrue(store.findByIpn("1248000331").isEmpty());
+        assertEquals(List.of(3, 1, 2), ids(store.findAll(Pageable.unpaged(Sort.by("lastName")))));
+    }
+
+    @Test
+    void updateAllShouldRejectBatchWithMalformedPersonBeforeWritingAnyone() {
+        Person taras = person("Тарас", "Франко", "1248000331");
+        taras.setId(1);
+        Person olena = person("Олена", null, "2248000331");
+        olena.setId(2);
+
+        assertThrows(IllegalArgumentException.class, () -> store.updateAll(List.of(taras, olena)));
+
+        assertEquals("Шевченко", store.findById(1).orElseThrow().getLastName());
+    }
+
+    private static List<Integer> ascendingIdsAfter(Map<Integer, Person> people, int afterId) {
+        return people.keySet().stream().filter(id -> id > afterId).sorted().limit(20).toList();
+    }
+
+    private static List<Integer> ids(Iterable<Person> people) {
+        List<Integer> ids = new ArrayList<>();
+        people.forEach(person -> ids.add(person.getId()));
+        return ids;
+    }
+
+    private static Person person(String firstName, String lastName, String ipn) {
+        return Person.builder()
+                .firstName(firstName)
+                .lastName(lastName)
+                .birthday(LocalDate.of(1990, 3, 9))
+                .ipn(ipn)
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package pl.davidduke.repository;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pl.davidduke.entity.Person;
+import pl.davidduke.memory.InMemoryPersonStore;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentedPersonStoreTest {
+    static final String REPOSITORY_EVENT = "pl.davidduke.Repository";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void everyCallShouldBeRecordedWithItsOperation() throws IOException {
+        PersonStore store = new InstrumentedPersonStore(new InMemoryPersonStore());
+        try (Recording recording = new Recording()) {
+            recording.enable(REPOSITORY_EVENT).withoutThreshold();
+            recording.start();
+
+            Person person = store.save(person());
+            person.setLastName("Франко");
+            store.updateAll(List.of(person));
+            assertEquals("Франко", store.findById(person.getId()).orElseThrow().getLastName());
+            store.deleteById(person.getId());
+
+            recording.stop();
+            Path file = directory.resolve("recording.jfr");
+            recording.dump(file);
+            assertEquals(List.of("save", "updateAll", "findById", "deleteById"),
+                    RecordingFile.readAllEvents(file).stream()
+                            .filter(event -> event.getEventType().getName().equals(REPOSITORY_EVENT))
+                            .map(event -> event.getString("operation"))
+                            .toList());
+        }
+    }
+
+    @Test
+    void callsShouldReachStoreWhileEventIsDisabled() {
+        InMemoryPersonStore delegate = new InMemoryPersonStore();
+        PersonStore store = new InstrumentedPersonStore(delegate);
+
+        store.insertAll(List.of(person()));
+
+        assertEquals(1, delegate.size());
+        assertEquals("2248000331", store.findAllByIpn(List.of("2248000331")).get(0).getIpn());
+    }
+
+    private static Person person() {
+        return Person.builder()
+                .firstName("Тарас")
+                .lastName("Шевченко")
+                .birthday(LocalDate.of(1990, 3, 9))
+                .ipn("2248000331")
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package pl.davidduke.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import pl.davidduke.exception.UnsupportedSortException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersonSortTest {
+
+    @Test
+    void stableShouldSortByIdWhenUnsorted() {
+        assertEquals(Sort.by("id"), PersonSort.stable(Sort.unsorted()));
+    }
+
+    @Test
+    void stableShouldAppendIdInDirectionOfSortedField() {
+        Pageable pageable = PersonSort.stable(PageRequest.of(2, 20, Sort.by(Sort.Direction.DESC, "lastName")));
+
+        assertEquals(Sort.by(Sort.Direction.DESC, "lastName", "id"), pageable.getSort());
+        assertEquals(2, pageable.getPageNumber());
+        assertEquals(20, pageable.getPageSize());
+    }
+
+    @Test
+    void stableShouldKeepExplicitIdTiebreak() {
+        Sort sort = Sort.by(Sort.Order.desc("birthday"), Sort.Order.desc("id"));
+
+        assertEquals(sort, PersonSort.stable(sort));
+    }
+
+    @Test
+    void stableShouldRejectIdTiebreakInOtherDirection() {
+        Sort sort = Sort.by(Sort.Order.asc("birthday"), Sort.Order.desc("id"));
+
+        assertThrows(UnsupportedSortException.class, () -> PersonSort.stable(sort));
+    }
+
+    @Test
+    void stableShouldRejectCaseInsensitiveSorts() {
+        Sort sort = Sort.by(Sort.Order.asc("lastName").ignoreCase());
+
+        assertThrows(UnsupportedSortException.class, () -> PersonSort.stable(sort));
+    }
+
+    @Test
+    void stableShouldRejectSortsWithoutIndex() {
+        assertThrows(UnsupportedSortException.class, () -> PersonSort.stable(Sort.by("ipn")));
+        assertThrows(UnsupportedSortException.class, () -> PersonSort.stable(Sort.by("firstName", "lastName")));
+    }
+}
@@ -0,0 +1,108 @@
+package pl.davidduke.search;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.davidduke.config.PeopleApiProperties;
+import pl.davidduke.entity.Person;
+import pl.davidduke.repository.PersonStore;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class PersonSearchIndexTest {
+    PersonSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PersonSearchIndex(null, new PeopleApiProperties());
+        index.put(1, "Олександр", "Давидюк");
+        index.put(2, "Тарас", "Шевченко");
+        index.put(3, "Олена", "Шевчук");
+        index.put(4, "David", "Duke");
+    }
+
+    @Test
+    void searchShouldFindPeopleByNameFragmentPreferringShorterNames() {
+        assertEquals(List.of(3, 2), ids(index.search("шевч", 10)));
+    }
+
+    @Test
+    void searchShouldFindPeopleByFragmentFromTheMiddleOfName() {
+        assertEquals(List.of(2), ids(index.search("ченк", 10)));
+        assertEquals(List.of(1), ids(index.search("видю", 10)));
+    }
+
+    @Test
+    void searchShouldRankClosestNameFirst() {
+        assertEquals(2, index.search("Тарас Шевченко", 10).get(0).id());
+    }
+
+    @Test
+    void searchShouldTolerateTypos() {
+        assertEquals(1, index.search("Давидюкк", 10).get(0).id());
+    }
+
+    @Test
+    void searchShouldBeCaseInsensitive() {
+        assertEquals(List.of(4), ids(index.search("DUKE", 10)));
+    }
+
+    @Test
+    void searchShouldRespectLimit() {
+        assertEquals(1, index.search("шевч", 1).size());
+    }
+
+    @Test
+    void searchShouldReturnNothingForBlankQuery() {
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    void putShouldReplacePreviouslyIndexedName() {
+        index.put(4, "Ivan", "Franko");
+
+        assertTrue(index.search("Duke", 10).isEmpty());
+        assertEquals(List.of(4), ids(index.search("Franko", 10)));
+    }
+
+    @Test
+    void removeShouldDropPersonFromResults() {
+        index.remove(2);
+
+        assertEquals(List.of(3), ids(index.search("шевч", 10)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void rebuildShouldWalkStoreByIdAndKeepPeopleDeletedMeanwhileOut() {
+        PersonStore personStore = mock(PersonStore.class);
+        PersonSearchIndex rebuiltIndex = new PersonSearchIndex(personStore, new PeopleApiProperties());
+        when(personStore.findAllAfterId(0, PersonSearchIndex.REBUILD_PAGE_SIZE)).thenAnswer(invocation -> {
+            rebuiltIndex.remove(2);
+            return List.of(person(1, "Олександр", "Давидюк"), person(2, "Тарас", "Шевченко"));
+        });
+
+        rebuiltIndex.rebuild();
+
+        assertEquals(1, rebuiltIndex.size());
+        assertTrue(rebuiltIndex.search("Шевченко", 10).isEmpty());
+        verify(personStore).findAllAfterId(0, PersonSearchIndex.REBUILD_PAGE_SIZE);
+        verifyNoMoreInteractions(personStore);
+    }
+
+    private static Person person(int id, String firstName, String lastName) {
+        return Person.builder().id(id).firstName(firstName).lastName(lastName).build();
+    }
+
+    private static List<Integer> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::id).toList();
+    }
+}
@@ -0,0 +1,129 @@
+package pl.davidduke.service;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import pl.davidduke.dto.BulkPersonUpdateDto;
+import pl.davidduke.dto.BulkUpdateResultDto;
+import pl.davidduke.dto.BulkUpdateStatus;
+import pl.davidduke.dto.PersonChangesDto;
+import pl.davidduke.dto.PersonDto;
+import pl.davidduke.dto.RequestPersonDto;
+import pl.davidduke.repository.PersonRepository;
+import pl.davidduke.sqlmetrics.JdbcCallCounter;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(JdbcCallCounter.Config.class)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class PersonServiceBulkUpdateTest {
+
+    @Autowired
+    PersonService service;
+
+    @Autowired
+    PersonRepository repository;
+
+    PersonDto first;
+    PersonDto second;
+
+    @BeforeEach
+    void setUp() {
+        first = service.createPerson(person("2248000331"));
+        second = service.createPerson(person("2248000348"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAllInBatch();
+    }
+
+    @Test
+    void updatePeopleShouldApplyValidChangesAndReportEveryItem() {
+        List<BulkUpdateResultDto> results = service.updatePeople(List.of(
+                update(first.getId(), PersonChangesDto.builder().firstName("David").ipn("2248000354").build()),
+                update(first.getId() + second.getId() + 1, PersonChangesDto.builder().firstName("David").build()),
+                update(second.getId(), PersonChangesDto.builder().birthday(LocalDate.now().plusDays(1)).build())
+        ));
+
+        assertEquals(List.of(BulkUpdateStatus.UPDATED, BulkUpdateStatus.NOT_FOUND, BulkUpdateStatus.INVALID),
+                results.stream().map(BulkUpdateResultDto::getStatus).toList());
+        assertEquals("birthday", results.get(2).getErrors().get(0).getField());
+        PersonDto updated = service.findPersonById(first.getId());
+        assertEquals("David", updated.getFirstName());
+        assertEquals("Давидюк", updated.getLastName());
+        assertEquals("2248000354", updated.getIpn());
+        assertEquals(second.getBirthday(), service.findPersonById(second.getId()).getBirthday());
+    }
+
+    @Test
+    void updatePeopleShouldRejectIpnsHeldByOtherPeople() {
+        List<BulkUpdateResultDto> results = service.updatePeople(List.of(
+                update(second.getId(), PersonChangesDto.builder().ipn(first.getIpn()).build()),
+                update(first.getId(), PersonChangesDto.builder().ipn("2248000360").build()),
+                update(second.getId(), PersonChangesDto.builder().ipn("2248000360").build())
+        ));
+
+        assertEquals(List.of(BulkUpdateStatus.IPN_CONFLICT, BulkUpdateStatus.UPDATED, BulkUpdateStatus.INVALID),
+                results.stream().map(BulkUpdateResultDto::getStatus).toList());
+        assertEquals("2248000348", service.findPersonById(second.getId()).getIpn());
+    }
+
+    @Test
+    void updatePeopleShouldLoadOnceAndWriteAcceptedChangesAsOneJdbcBatch() {
+        PersonDto third = service.createPerson(person("2248000360"));
+        JdbcCallCounter.reset();
+
+        service.updatePeople(List.of(
+                update(first.getId(), PersonChangesDto.builder().firstName("David").build()),
+                update(second.getId(), PersonChangesDto.builder().lastName("Duke").build()),
+                update(third.getId(), PersonChangesDto.builder().firstName("Ivan").build())
+        ));
+
+        assertEquals(1, JdbcCallCounter.executedStatements());
+        assertEquals(1, JdbcCallCounter.executedBatches());
+        assertEquals(3, JdbcCallCounter.batchedStatements());
+        assertEquals("Duke", service.findPersonById(second.getId()).getLastName());
+    }
+
+    @Test
+    void updatePeopleShouldReportItemsWithoutIdAsInvalid() {
+        List<BulkUpdateResultDto> results = service.updatePeople(Arrays.asList(
+                null,
+                BulkPersonUpdateDto.builder().changes(PersonChangesDto.builder().firstName("David").build()).build(),
+                update(first.getId(), PersonChangesDto.builder().firstName("David").build())
+        ));
+
+        assertEquals(List.of(BulkUpdateStatus.INVALID, BulkUpdateStatus.INVALID, BulkUpdateStatus.UPDATED),
+                results.stream().map(BulkUpdateResultDto::getStatus).toList());
+        assertNull(results.get(0).getId());
+        assertEquals("id", results.get(1).getErrors().get(0).getField());
+        assertEquals("David", service.findPersonById(first.getId()).getFirstName());
+    }
+
+    private static BulkPersonUpdateDto update(int id, PersonChangesDto changes) {
+        return BulkPersonUpdateDto.builder()
+                .id(id)
+                .changes(changes)
+                .build();
+    }
+
+    private static RequestPersonDto person(String ipn) {
+        return RequestPersonDto.builder()
+                .firstName("Олександр")
+                .lastName("Давидюк")
+                .birthday(LocalDate.of(1995, 6, 5))
+                .ipn(ipn)
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package pl.davidduke.service;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import pl.davidduke.dto.BulkPersonUpdateDto;
+import pl.davidduke.dto.PersonChangesDto;
+import pl.davidduke.dto.PersonDto;
+import pl.davidduke.dto.RequestPersonDto;
+import pl.davidduke.repository.PersonRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static pl.davidduke.sqlmetrics.SqlStatementCountAssertions.assertStatementCount;
+
+@SpringBootTest
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class PersonServiceStatementCountTest {
+
+    @Autowired
+    PersonService service;
+
+    @Autowired
+    PersonRepository repository;
+
+    RequestPersonDto requestPersonDto;
+
+    @BeforeEach
+    void setUp() {
+        requestPersonDto = RequestPersonDto.builder()
+                .firstName("Олександр")
+                .lastName("Давидюк")
+                .birthday(LocalDate.of(1995, 6, 5))
+                .ipn("2248000331")
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAllInBatch();
+    }
+
+    @Test
+    void createPersonShouldCheckIpnAndInsert() {
+        assertStatementCount(2, () -> service.createPerson(requestPersonDto));
+    }
+
+    @Test
+    void findPersonByIdShouldSelectOnce() {
+        PersonDto person = service.createPerson(requestPersonDto);
+
+        assertStatementCount(1, () -> service.findPersonById(person.getId()));
+    }
+
+    @Test
+    void findAllPeopleShouldSkipCountQueryForPartialFirstPage() {
+        service.createPerson(requestPersonDto);
+
+        assertStatementCount(1, () -> service.findAllPeople(PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void findPeopleByIdsShouldSelectOnce() {
+        PersonDto person = service.createPerson(requestPersonDto);
+
+        assertStatementCount(1, () -> service.findPeopleByIds(List.of(person.getId(), person.getId() + 1)));
+    }
+
+    @Test
+    void updatePersonShouldLoadCheckIpnAndUpdate() {
+        PersonDto person = service.createPerson(requestPersonDto);
+        requestPersonDto.setFirstName("David");
+
+        assertStatementCount(3, () -> service.updatePerson(person.getId(), requestPersonDto));
+    }
+
+    @Test
+    void updatePeopleShouldLoadOnceAndCountJdbcBatchAsOneStatement() {
+        PersonDto person = service.createPerson(requestPersonDto);
+
+        assertStatementCount(2, () -> service.updatePeople(List.of(BulkPersonUpdateDto.builder()
+                .id(person.getId())
+                .changes(PersonChangesDto.builder().firstName("David").build())
+                .build())));
+    }
+
+    @Test
+    void deletePersonShouldLoadOnceAndDelete() {
+        PersonDto person = service.createPerson(requestPersonDto);
+
+        assertStatementCount(2, () -> service.deletePerson(person.getId()));
+    }
+}
@@ -1,21 +1,32 @@
 package pl.davidduke.service;
 
+import jakarta.validation.Validator;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import pl.davidduke.config.PeopleApiProperties;
+import pl.davidduke.dto.PersonDto;
+import pl.davidduke.dto.RequestPersonDto;
 import pl.davidduke.entity.Person;
+import pl.davidduke.event.PersonChangeType;
+import pl.davidduke.event.PersonChangedEvent;
+import pl.davidduke.exception.IpnAlreadyExistsException;
 import pl.davidduke.exception.PersonNotFoundException;
-import pl.davidduke.repository.PersonRepository;
+import pl.davidduke.repository.PersonStore;
+import pl.davidduke.search.PersonSearchIndex;
+import pl.davidduke.util.PersonMapper;
 
 import java.time.LocalDate;
 import java.util.Collections;
@@ -28,17 +39,25 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 @FieldDefaults(level = AccessLevel.PRIVATE)
 class PersonServiceTest {
-    final ModelMapper MAPPER = new ModelMapper();
     @Mock
-    PersonRepository repository;
+    PersonStore personStore;
     @Mock
-    ModelMapper modelMapperMock;
+    PersonMapper mapper;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+    @Spy
+    PeopleApiProperties properties = new PeopleApiProperties();
+    @Mock
+    PersonSearchIndex searchIndex;
+    @Mock
+    Validator validator;
 
     @InjectMocks
     PersonService service;
 
     Person person;
-    ResponsePersonDto personDto;
+    PersonDto personDto;
+    RequestPersonDto requestPersonDto;
 
     @BeforeEach
     void setUp() {
@@ -50,7 +69,21 @@ class PersonServiceTest {
                 .birthday(LocalDate.of(1995, 6, 5))
                 .ipn("2248000331")
                 .build();
-        personDto = MAPPER.map(person, ResponsePersonDto.class);
+        personDto = PersonDto
+                .builder()
+                .id(1)
+                .firstName(person.getFirstName())
+                .lastName(person.getLastName())
+                .birthday(person.getBirthday())
+                .ipn(person.getIpn())
+                .build();
+        requestPersonDto = RequestPersonDto
+                .builder()
+                .firstName(person.getFirstName())
+                .lastName(person.getLastName())
+                .birthday(person.getBirthday())
+                .ipn(person.getIpn())
+                .build();
     }
 
     @Test
@@ -59,112 +92,140 @@ class PersonServiceTest {
         Page<Person> peoplePage =
                 new PageImpl<>(Collections.singletonList(person));
 
-        when(repository.findAll(pageable))
+        when(personStore.findAll(any(Pageable.class)))
                 .thenReturn(peoplePage);
-        when(modelMapperMock.map(person, ResponsePersonDto.class))
+        when(mapper.personToPersonDto(person))
                 .thenReturn(personDto);
 
-        Page<ResponsePersonDto> result = service.findAllPeople(pageable);
+        Page<PersonDto> result = service.findAllPeople(pageable);
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
         assertEquals(personDto, result.getContent().get(0));
 
-        verify(repository, times(1)).findAll(pageable);
-        verify(modelMapperMock, times(1)).map(person, ResponsePersonDto.class);
+        verify(personStore, times(1)).findAll(any(Pageable.class));
+        verify(mapper, times(1)).personToPersonDto(person);
     }
 
     @Test
-    void createPersonShouldReturnCreatedPersonDto() {
-        when(repository.save(any(Person.class)))
+    void createPersonShouldReturnCreatedPersonDtoAndPublishCreatedEvent() {
+        when(personStore.findByIpn(person.getIpn()))
+                .thenReturn(Optional.empty());
+        when(mapper.requestPersonDtoToPerson(requestPersonDto))
                 .thenReturn(person);
-        when(modelMapperMock.map(personDto, Person.class))
+        when(personStore.save(person))
                 .thenReturn(person);
+        when(mapper.personToPersonDto(person))
+                .thenReturn(personDto);
 
-        ResponsePersonDto result = service.createPerson(personDto);
+        PersonDto result = service.createPerson(requestPersonDto);
 
-        assertNotNull(result);
+        assertEquals(personDto, result);
+        verify(personStore, times(1)).save(person);
+        assertEquals(new PersonChangedEvent(PersonChangeType.CREATED, 1, personDto), publishedEvent());
+    }
 
-        verify(repository, times(1)).save(person);
-        verify(modelMapperMock, times(1)).map(personDto, Person.class);
+    @Test
+    void createPersonShouldThrowIpnAlreadyExistsExceptionWithoutPublishingEvent() {
+        when(personStore.findByIpn(person.getIpn()))
+                .thenReturn(Optional.of(person));
+
+        assertThrows(IpnAlreadyExistsException.class, () ->
+                service.createPerson(requestPersonDto));
+
+        verify(personStore, never()).save(any(Person.class));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
-    void updatePersonShouldReturnUpdatedPersonDto() {
-        ResponsePersonDto updatedPersonDto = personDto;
-        updatedPersonDto.setFirstName("David");
-        updatedPersonDto.setLastName("Duke");
+    void updatePersonShouldReturnUpdatedPersonDtoAndPublishUpdatedEvent() {
+        requestPersonDto.setFirstName("David");
         Person updatedPerson = Person
+                .builder()
+                .firstName("David")
+                .lastName(person.getLastName())
+                .birthday(person.getBirthday())
+                .ipn(person.getIpn())
+                .build();
+        PersonDto updatedPersonDto = PersonDto
                 .builder()
                 .id(1)
                 .firstName("David")
-                .lastName("Duke")
-                .birthday(LocalDate.of(1995, 6, 5))
-                .ipn("2248000331")
+                .lastName(person.getLastName())
+                .birthday(person.getBirthday())
+                .ipn(person.getIpn())
                 .build();
 
-        when(repository.findById(anyInt()))
+        when(personStore.findById(1))
                 .thenReturn(Optional.of(person));
-        when(modelMapperMock.map(any(Person.class), eq(ResponsePersonDto.class)))
+        when(mapper.personToPersonDto(person))
                 .thenReturn(personDto);
-        when(modelMapperMock.map(any(ResponsePersonDto.class), eq(Person.class)))
-                .thenReturn(person);
-        when(repository.save(any(Person.class)))
+        when(personStore.findByIpn(person.getIpn()))
+                .thenReturn(Optional.of(person));
+        when(mapper.requestPersonDtoToPerson(requestPersonDto))
                 .thenReturn(updatedPerson);
+        when(mapper.personToPersonDto(updatedPerson))
+                .thenReturn(updatedPersonDto);
 
-        service.updatePerson(1, updatedPersonDto);
+        PersonDto result = service.updatePerson(1, requestPersonDto);
 
-        verify(repository, times(1)).findById(anyInt());
-        verify(modelMapperMock, times(1)).map(any(ResponsePersonDto.class), eq(Person.class));
-        verify(repository, times(1)).save(any(Person.class));
+        assertEquals(updatedPersonDto, result);
+        assertEquals(1, updatedPerson.getId());
+        verify(personStore, times(1)).save(updatedPerson);
+        assertEquals(new PersonChangedEvent(PersonChangeType.UPDATED, 1, updatedPersonDto), publishedEvent());
     }
 
     @Test
     void updatePersonShouldThrowPersonNotFoundExceptionWhenPersonWithSpecifiedIdIsNotExist() {
-        when(repository.findById(anyInt()))
+        when(personStore.findById(1))
                 .thenReturn(Optional.empty());
 
         assertThrows(PersonNotFoundException.class, () ->
-                service.updatePerson(1, personDto));
+                service.updatePerson(1, requestPersonDto));
 
-        verify(repository, times(1)).findById(anyInt());
+        verify(personStore, times(1)).findById(1);
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
     void findPersonByIdShouldReturnPersonDtoWhenPersonWithSpecifiedIdExist() {
-        when(repository.findById(anyInt()))
+        when(personStore.findById(1))
                 .thenReturn(Optional.of(person));
-        when(modelMapperMock.map(person, ResponsePersonDto.class))
+        when(mapper.personToPersonDto(person))
                 .thenReturn(personDto);
 
-        service.findPersonById(1);
+        assertEquals(personDto, service.findPersonById(1));
 
-        verify(repository, times(1)).findById(anyInt());
-        verify(modelMapperMock, times(1)).map(person, ResponsePersonDto.class);
+        verify(personStore, times(1)).findById(1);
     }
 
     @Test
     void findPersonByIdShouldThrowPersonNotFoundExceptionWhenPersonWithSpecifiedIdIsNotExist() {
-        when(repository.findById(anyInt()))
+        when(personStore.findById(1))
                 .thenReturn(Optional.empty());
 
         assertThrows(PersonNotFoundException.class, () ->
                 service.findPersonById(1));
 
-        verify(repository, times(1)).findById(anyInt());
+        verify(personStore, times(1)).findById(1);
     }
 
     @Test
-    void deletePersonShouldDeletePersonWithSpecifiedIdWhenPersonExist() {
-        when(repository.findById(anyInt()))
+    void deletePersonShouldDeletePersonAndPublishDeletedEvent() {
+        when(personStore.findById(1))
                 .thenReturn(Optional.of(person));
-        when(modelMapperMock.map(person, ResponsePersonDto.class))
+        when(mapper.personToPersonDto(person))
                 .thenReturn(personDto);
-        doNothing().when(repository).deleteById(anyInt());
 
         service.deletePerson(1);
 
-        verify(repository, times(1)).findById(anyInt());
-        verify(repository, times(1)).deleteById(1);
+        verify(personStore, times(1)).deleteById(1);
+        assertEquals(new PersonChangedEvent(PersonChangeType.DELETED, 1, null), publishedEvent());
+    }
+
+    private PersonChangedEvent publishedEvent() {
+        ArgumentCaptor<PersonChangedEvent> event = ArgumentCaptor.forClass(PersonChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        return event.getValue();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,211 @@
+package pl.davidduke.sharding;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import pl.davidduke.entity.Person;
+import pl.davidduke.exception.IpnAlreadyExistsException;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the store against three in-memory H2 databases, one per shard.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class ShardedPersonStoreTest {
+    static final int SHARDS = 3;
+    static final int PEOPLE = 30;
+    static final String[] LAST_NAMES = {"Шевченко", "Шевчук", "Давидюк", "Франко", "Бойко"};
+
+    List<JdbcTemplate> shards;
+    ShardedPersonStore store;
+
+    @BeforeEach
+    void setUp() {
+        String database = UUID.randomUUID().toString();
+        List<DataSource> dataSources = new ArrayList<>();
+        for (int shard = 0; shard < SHARDS; shard++) {
+            dataSources.add(new DriverManagerDataSource(
+                    "jdbc:h2:mem:" + database + "-" + shard + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        }
+        shards = dataSources.stream().map(JdbcTemplate::new).toList();
+        store = new ShardedPersonStore(dataSources, 4);
+        for (int i = 0; i < PEOPLE; i++) {
+            store.save(person(0, LAST_NAMES[i % LAST_NAMES.length], ipn(i)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+        shards.forEach(shard -> shard.execute("SHUTDOWN"));
+    }
+
+    @Test
+    void saveShouldStoreEveryPersonOnExactlyOneShard() {
+        int stored = 0;
+        for (JdbcTemplate shard : shards) {
+            int count = shard.queryForObject("SELECT COUNT(*) FROM person", Integer.class);
+            assertTrue(count > 0);
+            stored += count;
+        }
+        assertEquals(PEOPLE, stored);
+        for (int id = 1; id <= PEOPLE; id++) {
+            assertEquals(id, store.findById(id).orElseThrow().getId());
+        }
+    }
+
+    @Test
+    void findByIpnShouldFollowClaimToPersonOnAnotherShard() {
+        assertEquals(ipn(7), store.findByIpn(ipn(7)).orElseThrow().getIpn());
+        assertEquals(List.of(3, 12, 25),
+                store.findAllByIpn(List.of(ipn(2), ipn(11), ipn(24), ipn(99))).stream()
+                        .map(Person::getId)
+                        .sorted()
+                        .toList());
+        assertTrue(store.findByIpn(ipn(99)).isEmpty());
+    }
+
+    @Test
+    void findAllShouldMergeShardsInRequestedOrder() {
+        for (Sort.Direction direction : Sort.Direction.values()) {
+            Comparator<Person> byLastName = Comparator.comparing(Person::getLastName)
+                    .thenComparingInt(Person::getId);
+            List<Person> expected = store.findAllById(ids(1, PEOPLE)).stream()
+                    .sorted(direction.isAscending() ? byLastName : byLastName.reversed())
+                    .skip(7)
+                    .limit(7)
+                    .toList();
+
+            Page<Person> page = store.findAll(PageRequest.of(1, 7, Sort.by(direction, "lastName")));
+
+            assertEquals(PEOPLE, page.getTotalElements());
+            assertEquals(expected.stream().map(Person::getId).toList(),
+                    page.getContent().stream().map(Person::getId).toList());
+        }
+    }
+
+    @Test
+    void findAllAfterIdShouldReturnLowestIdsOfAllShards() {
+        assertEquals(ids(11, 15), store.findAllAfterId(10, 5).stream().map(Person::getId).toList());
+        assertTrue(store.findAllAfterId(PEOPLE, 5).isEmpty());
+    }
+
+    @Test
+    void saveShouldRejectIpnClaimedByAnotherPerson() {
+        assertThrows(IpnAlreadyExistsException.class, () -> store.save(person(0, "Франко", ipn(4))));
+
+        assertEquals(5, store.findByIpn(ipn(4)).orElseThrow().getId());
+        assertEquals(PEOPLE, store.findAll(PageRequest.of(0, 1)).getTotalElements());
+    }
+
+    @Test
+    void saveShouldReleaseIpnClaimWhenInsertFails() {
+        Person invalid = person(0, null, ipn(100));
+
+        assertThrows(DataIntegrityViolationException.class, () -> store.save(invalid));
+
+        assertTrue(store.findByIpn(ipn(100)).isEmpty());
+        assertNotEquals(0, store.save(person(0, "Франко", ipn(100))).getId());
+    }
+
+    @Test
+    void saveShouldKeepPreviousIpnWhenUpdateFails() {
+        Person invalid = person(3, null, ipn(100));
+
+        assertThrows(DataIntegrityViolationException.class, () -> store.save(invalid));
+
+        assertEquals(3, store.findByIpn(ipn(2)).orElseThrow().getId());
+        assertTrue(store.findByIpn(ipn(100)).isEmpty());
+    }
+
+    @Test
+    void saveShouldMoveIpnClaimOnUpdate() {
+        store.save(person(3, "Франко", ipn(100)));
+
+        assertTrue(store.findByIpn(ipn(2)).isEmpty());
+        assertEquals("Франко", store.findByIpn(ipn(100)).orElseThrow().getLastName());
+    }
+
+    @Test
+    void saveWithSuppliedIdShouldMoveSequencePastIt() {
+        store.save(person(100, "Франко", ipn(100)));
+
+        assertEquals(101, store.save(person(0, "Франко", ipn(101))).getId());
+        assertEquals(102, store.save(person(0, "Франко", ipn(102))).getId());
+    }
+
+    @Test
+    void updateAllShouldUpdatePeopleOnEveryShardAndMoveIpnClaims() {
+        List<Person> updates = ids(1, 6).stream()
+                .map(id -> person(id, "Франко", ipn(100 + id)))
+                .toList();
+
+        store.updateAll(updates);
+
+        for (int id = 1; id <= 6; id++) {
+            assertEquals("Франко", store.findById(id).orElseThrow().getLastName());
+            assertEquals(id, store.findByIpn(ipn(100 + id)).orElseThrow().getId());
+            assertTrue(store.findByIpn(ipn(id - 1)).isEmpty());
+        }
+    }
+
+    @Test
+    void updateAllShouldChangeNothingWhenAnIpnIsTaken() {
+        List<Person> updates = List.of(person(1, "Франко", ipn(100)), person(2, "Франко", ipn(9)));
+
+        assertThrows(IpnAlreadyExistsException.class, () -> store.updateAll(updates));
+
+        assertTrue(store.findByIpn(ipn(100)).isEmpty());
+        assertEquals(1, store.findByIpn(ipn(0)).orElseThrow().getId());
+        assertNotEquals("Франко", store.findById(1).orElseThrow().getLastName());
+    }
+
+    @Test
+    void updateAllShouldReleaseNewIpnsOfShardThatFailed() {
+        Person invalid = person(4, null, ipn(100));
+
+        assertThrows(DataIntegrityViolationException.class, () -> store.updateAll(List.of(invalid)));
+
+        assertTrue(store.findByIpn(ipn(100)).isEmpty());
+        assertEquals(4, store.findByIpn(ipn(3)).orElseThrow().getId());
+    }
+
+    private static List<Integer> ids(int from, int to) {
+        List<Integer> ids = new ArrayList<>();
+        for (int id = from; id <= to; id++) {
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private static String ipn(int i) {
+        return String.valueOf(2_248_000_000L + i);
+    }
+
+    private static Person person(int id, String lastName, String ipn) {
+        return Person.builder()
+                .id(id)
+                .firstName("Олександр")
+                .lastName(lastName)
+                .birthday(LocalDate.of(1995, 6, 5))
+                .ipn(ipn)
+                .build();
+    }
+}
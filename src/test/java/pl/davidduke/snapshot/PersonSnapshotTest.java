@@ -0,0 +1,67 @@
+package pl.davidduke.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersonSnapshotTest {
+
+    @Test
+    void readShouldRestoreWrittenRows(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("people.snapshot");
+        new PersonSnapshot.Builder()
+                .add(3, "Олександр", "Давидюк", LocalDate.of(2001, 7, 19), "0248000331")
+                .add(7, "Олена", "Давидюк", LocalDate.of(1965, 1, 2), "2248000331")
+                .build()
+                .write(file);
+
+        PersonSnapshot snapshot = PersonSnapshot.read(file);
+
+        assertEquals(2, snapshot.getSize());
+        assertEquals(7, snapshot.maxId());
+        assertEquals(3, snapshot.id(0));
+        assertEquals("Олександр", snapshot.firstName(0));
+        assertEquals("Давидюк", snapshot.lastName(1));
+        assertEquals(LocalDate.of(1965, 1, 2), snapshot.birthday(1));
+        assertEquals("0248000331", snapshot.ipn(0));
+        assertEquals("2248000331", snapshot.ipn(1));
+    }
+
+    @Test
+    void builderShouldStoreRepeatedNamesOnce() {
+        PersonSnapshot snapshot = new PersonSnapshot.Builder()
+                .add(1, "Тарас", "Шевченко", LocalDate.of(1990, 3, 9), "2248000331")
+                .add(2, "Олена", "Шевченко", LocalDate.of(1991, 3, 9), "2248000332")
+                .build();
+
+        assertEquals(3, snapshot.dictionarySize());
+    }
+
+    @Test
+    void builderShouldLeaveOutRowsWithMalformedIpn() {
+        PersonSnapshot.Builder builder = new PersonSnapshot.Builder()
+                .add(1, "Тарас", "Шевченко", LocalDate.of(1990, 3, 9), "22480003x1")
+                .add(2, "Олена", "Шевченко", LocalDate.of(1991, 3, 9), "+248000332")
+                .add(3, "Олена", "Шевчук", LocalDate.of(1991, 3, 9), "2248000333");
+
+        PersonSnapshot snapshot = builder.build();
+
+        assertEquals(2, builder.getSkipped());
+        assertEquals(1, snapshot.getSize());
+        assertEquals(3, snapshot.id(0));
+        assertEquals("2248000333", snapshot.ipn(0));
+    }
+
+    @Test
+    void readShouldRejectOtherFiles(@TempDir Path directory) throws IOException {
+        Path file = Files.writeString(directory.resolve("people.snapshot"), "id,first_name,last_name");
+
+        assertThrows(IOException.class, () -> PersonSnapshot.read(file));
+    }
+}
@@ -0,0 +1,94 @@
+package pl.davidduke.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pl.davidduke.config.PeopleApiProperties;
+import pl.davidduke.config.SnapshotProperties;
+import pl.davidduke.entity.Person;
+import pl.davidduke.event.PeopleReloadedEvent;
+import pl.davidduke.memory.InMemoryPersonStore;
+import pl.davidduke.search.PersonSearchIndex;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Writes the snapshot of one in-memory store and restores it into another, as after a restart
+ * with {@code app.person-store=in-memory}.
+ */
+class PersonSnapshotterTest {
+
+    @Test
+    void runShouldRestoreSnapshotIntoInMemoryStore(@TempDir Path directory) throws IOException {
+        SnapshotProperties properties = new SnapshotProperties();
+        properties.setFile(directory.resolve("people.snapshot"));
+        InMemoryPersonStore before = new InMemoryPersonStore();
+        before.save(person("Тарас", "Шевченко", "0248000331"));
+        before.save(person("Олена", "Шевчук", "2248000331"));
+        before.save(person("Олександр", "Давидюк", "3248000331"));
+        before.deleteById(2);
+        snapshotter(before, properties).writeOnShutdown();
+
+        InMemoryPersonStore after = new InMemoryPersonStore();
+        PersonSearchIndex searchIndex = new PersonSearchIndex(after, new PeopleApiProperties());
+        new PersonSnapshotter(after, null, null, searchIndex, properties).run(null);
+
+        assertEquals(2, after.size());
+        assertEquals(3, after.findByIpn("3248000331").orElseThrow().getId());
+        assertEquals(3, searchIndex.search("Давидюк", 10).get(0).id());
+        assertEquals(4, after.save(person("Іван", "Франко", "4248000331")).getId());
+    }
+
+    @Test
+    void runShouldKeepPeopleOfStoreThatIsNotEmpty(@TempDir Path directory) throws IOException {
+        SnapshotProperties properties = new SnapshotProperties();
+        properties.setFile(directory.resolve("people.snapshot"));
+        InMemoryPersonStore before = new InMemoryPersonStore();
+        before.save(person("Тарас", "Шевченко", "0248000331"));
+        snapshotter(before, properties).writeOnShutdown();
+        InMemoryPersonStore after = new InMemoryPersonStore();
+        after.save(person("Іван", "Франко", "4248000331"));
+
+        snapshotter(after, properties).run(null);
+
+        assertEquals(1, after.size());
+        assertTrue(after.findByIpn("0248000331").isEmpty());
+        assertTrue(Files.exists(properties.getFile()));
+    }
+
+    @Test
+    void peopleReloadedShouldMakeNextWriteRunAfterRestore(@TempDir Path directory) throws IOException {
+        SnapshotProperties properties = new SnapshotProperties();
+        properties.setFile(directory.resolve("people.snapshot"));
+        InMemoryPersonStore before = new InMemoryPersonStore();
+        before.save(person("Тарас", "Шевченко", "0248000331"));
+        snapshotter(before, properties).writeOnShutdown();
+        InMemoryPersonStore after = new InMemoryPersonStore();
+        PersonSnapshotter snapshotter = snapshotter(after, properties);
+        snapshotter.run(null);
+
+        after.insertAll(List.of(person("Іван", "Франко", "4248000331")));
+        snapshotter.onPeopleReloaded(new PeopleReloadedEvent(1));
+        snapshotter.writeOnShutdown();
+
+        assertEquals(2, PersonSnapshot.read(properties.getFile()).getSize());
+    }
+
+    private static PersonSnapshotter snapshotter(InMemoryPersonStore store, SnapshotProperties properties) {
+        return new PersonSnapshotter(store, null, null, new PersonSearchIndex(store, new PeopleApiProperties()), properties);
+    }
+
+    private static Person person(String firstName, String lastName, String ipn) {
+        return Person.builder()
+                .firstName(firstName)
+                .lastName(lastName)
+                .birthday(LocalDate.of(1990, 3, 9))
+                .ipn(ipn)
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package pl.davidduke.sqlmetrics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts what reaches the JDBC driver, including the statements sent through
+ * {@code JdbcTemplate} that Hibernate's statement inspector never sees. Import
+ * {@link Config} into a Spring test to wrap the application's {@link DataSource}.
+ */
+public final class JdbcCallCounter {
+    static final AtomicInteger EXECUTED_STATEMENTS = new AtomicInteger();
+    static final AtomicInteger EXECUTED_BATCHES = new AtomicInteger();
+    static final AtomicInteger BATCHED_STATEMENTS = new AtomicInteger();
+
+    private JdbcCallCounter() {
+    }
+
+    public static void reset() {
+        EXECUTED_STATEMENTS.set(0);
+        EXECUTED_BATCHES.set(0);
+        BATCHED_STATEMENTS.set(0);
+    }
+
+    /**
+     * Statements executed one by one, batches not included.
+     */
+    public static int executedStatements() {
+        return EXECUTED_STATEMENTS.get();
+    }
+
+    public static int executedBatches() {
+        return EXECUTED_BATCHES.get();
+    }
+
+    public static int batchedStatements() {
+        return BATCHED_STATEMENTS.get();
+    }
+
+    static Object counting(Class<?> type, Object target) {
+        // keep close() visible, the context closes the pool through it on shutdown
+        Class<?>[] interfaces = target instanceof AutoCloseable
+                ? new Class<?>[]{type, AutoCloseable.class}
+                : new Class<?>[]{type};
+        return Proxy.newProxyInstance(JdbcCallCounter.class.getClassLoader(), interfaces,
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "execute", "executeQuery", "executeUpdate", "executeLargeUpdate" ->
+                                EXECUTED_STATEMENTS.incrementAndGet();
+                        case "executeBatch", "executeLargeBatch" -> EXECUTED_BATCHES.incrementAndGet();
+                        case "addBatch" -> BATCHED_STATEMENTS.incrementAndGet();
+                        default -> {
+                        }
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    Class<?> returnType = method.getReturnType();
+                    boolean jdbcResource = returnType == Connection.class || Statement.class.isAssignableFrom(returnType);
+                    return result != null && jdbcResource ? counting(returnType, result) : result;
+                });
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    public static class Config {
+
+        @Bean
+        static BeanPostProcessor jdbcCallCountingPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource
+                            ? counting(DataSource.class, dataSource)
+                            : bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package pl.davidduke.sqlmetrics;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlMetricsFilterTest {
+    final JdbcTemplate jdbcTemplate = new JdbcTemplate(new SqlMetricsDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:sql-metrics;DB_CLOSE_DELAY=-1")));
+
+    @AfterEach
+    void tearDown() {
+        SqlStatementMetrics.end();
+    }
+
+    @Test
+    void requestShouldReportItsOwnStatementsAndClearThemAfterwards() throws Exception {
+        SqlMetricsFilter filter = new SqlMetricsFilter(Duration.ofMillis(100));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/people/1"), response,
+                new MockFilterChain(new HttpServlet() {
+                    @Override
+                    protected void service(HttpServletRequest request, HttpServletResponse response) {
+                        jdbcTemplate.queryForObject("select ?", Integer.class, 1);
+                        jdbcTemplate.queryForObject("select ? + ?", Integer.class, 1, 2);
+                        assertEquals(Duration.ofMillis(100), SqlStatementMetrics.current().getSlowStatementThreshold());
+                    }
+                }));
+
+        assertEquals("2", response.getHeader(SqlMetricsFilter.STATEMENT_COUNT_HEADER));
+        assertNull(SqlStatementMetrics.current());
+    }
+
+    @Test
+    void statementsOutsideUnitOfWorkShouldNotBeCounted() {
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.queryForObject("select 1", Integer.class);
+        }
+
+        assertNull(SqlStatementMetrics.current());
+        SqlStatementMetrics metrics = SqlStatementMetrics.begin(Duration.ofMillis(100));
+        jdbcTemplate.queryForObject("select ?", Integer.class, 1);
+        assertEquals(1, metrics.getStatementCount());
+    }
+
+    @Test
+    void batchShouldBeCountedOnceAndTimed() {
+        jdbcTemplate.execute("create table if not exists metered (id int)");
+        SqlStatementMetrics metrics = SqlStatementMetrics.begin(Duration.ZERO);
+
+        jdbcTemplate.batchUpdate("insert into metered (id) values (?)",
+                List.of(new Object[]{1}, new Object[]{2}, new Object[]{3}));
+
+        assertEquals(1, metrics.getStatementCount());
+        assertEquals("insert into metered (id) values (?)", metrics.getLastStatement());
+        assertTrue(metrics.getExecutionTime().toNanos() > 0);
+    }
+
+    @Test
+    void executionShouldBeSlowFromThresholdOfUnitOfWork() {
+        SqlStatementMetrics metrics = SqlStatementMetrics.begin(Duration.ofMillis(5));
+
+        assertFalse(metrics.isSlow(Duration.ofMillis(4).toNanos()));
+        assertTrue(metrics.isSlow(Duration.ofMillis(5).toNanos()));
+    }
+}
@@ -0,0 +1,36 @@
+package pl.davidduke.sqlmetrics;
+
+import pl.davidduke.config.SqlMetricsProperties;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Asserts how many SQL statements the application issues for an action, so an added query or
+ * round trip fails the build.
+ */
+public final class SqlStatementCountAssertions {
+
+    private SqlStatementCountAssertions() {
+    }
+
+    public static <T> T assertStatementCount(int expected, Supplier<T> action) {
+        SqlStatementMetrics metrics = SqlStatementMetrics.begin(new SqlMetricsProperties().getSlowStatementThreshold());
+        try {
+            T result = action.get();
+            assertEquals(expected, metrics.getStatementCount(),
+                    () -> "Unexpected number of SQL statements, last one was: " + metrics.getLastStatement());
+            return result;
+        } finally {
+            SqlStatementMetrics.end();
+        }
+    }
+
+    public static void assertStatementCount(int expected, Runnable action) {
+        assertStatementCount(expected, () -> {
+            action.run();
+            return null;
+        });
+    }
+}